@@ -0,0 +1,108 @@
+/*******************************************************************************
+ * Copyright (c) 2024-2025 R3944Realms. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.r3944realms.dg_lab_api.benchmark;
+
+import com.r3944realms.dg_lab_api.message.data.PulseWaveListGenerator;
+import com.r3944realms.dg_lab_api.websocket.message.data.PowerBoxData;
+import com.r3944realms.dg_lab_api.websocket.message.data.type.PowerBoxDataType;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 指令校验与参数解析（每次都是新的 {@link PowerBoxData}，包含解析开销）
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CommandValidationBenchmark {
+    /**
+     * 指令
+     */
+    @Param({"strength", "strengthInfo", "pulse", "clear", "feedback", "invalid"})
+    public String command;
+
+    private String message;
+    private PowerBoxDataType type;
+
+    /**
+     * Sets up.
+     */
+    @Setup
+    public void setUp() {
+        switch (command) {
+            case "strength" -> {
+                message = "strength-1+2+35";
+                type = PowerBoxDataType.STRENGTH;
+            }
+            case "strengthInfo" -> {
+                message = "strength-20+30+200+200";
+                type = PowerBoxDataType.STRENGTH;
+            }
+            case "pulse" -> {
+                message = "pulse-A:" + PulseWaveListGenerator.sinPulse(20, 0, 100, 400).toListString();
+                type = PowerBoxDataType.PULSE;
+            }
+            case "clear" -> {
+                message = "clear-1";
+                type = PowerBoxDataType.CLEAR;
+            }
+            case "feedback" -> {
+                message = "feedback-7";
+                type = PowerBoxDataType.FEEDBACK;
+            }
+            default -> {
+                message = "strength-3+2+35";
+                type = PowerBoxDataType.STRENGTH;
+            }
+        }
+    }
+
+    /**
+     * Is command valid.
+     *
+     * @return the boolean
+     */
+    @Benchmark
+    public boolean isCommandValid() {
+        return new PowerBoxData("msg", "client", "target", message).isCommandValid(message);
+    }
+
+    /**
+     * Gets args array by pointing.
+     *
+     * @return the object [ ]
+     */
+    @Benchmark
+    public Object[] getArgsArrayByPointing() {
+        return new PowerBoxData("msg", "client", "target", message).getArgsArrayByPointing(type);
+    }
+
+    /**
+     * Read int arguments.
+     *
+     * @return the int
+     */
+    @Benchmark
+    public int readIntArguments() {
+        int[] args = new int[4];
+        return new PowerBoxData("msg", "client", "target", message).readIntArguments(type, args);
+    }
+}
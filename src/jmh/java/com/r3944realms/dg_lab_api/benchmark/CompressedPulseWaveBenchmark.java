@@ -0,0 +1,140 @@
+/*******************************************************************************
+ * Copyright (c) 2024-2025 R3944Realms. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.r3944realms.dg_lab_api.benchmark;
+
+import com.r3944realms.dg_lab_api.message.argType.Channel;
+import com.r3944realms.dg_lab_api.message.data.CompressedPulseWaveList;
+import com.r3944realms.dg_lab_api.message.data.PackedPulseWaveList;
+import com.r3944realms.dg_lab_api.message.data.PulseWaveList;
+import com.r3944realms.dg_lab_api.message.data.PulseWaveListGenerator;
+import com.r3944realms.dg_lab_api.websocket.message.data.PowerBoxDataBuilder;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 压缩波形：解码吞吐、随机访问与直接写入发送格式，压缩比在初始化时输出
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CompressedPulseWaveBenchmark {
+    /**
+     * 波形种类
+     */
+    @Param({"SMOOTH", "GRADIENT", "SIN"})
+    public String waveform;
+
+    /**
+     * 波形时长（25ms 为单位，4000 即 1000 段）
+     */
+    @Param({"4000"})
+    public int duration;
+
+    private PackedPulseWaveList packed;
+    private CompressedPulseWaveList compressed;
+    private long[] frames;
+    private int next;
+    private final PowerBoxDataBuilder builder = new PowerBoxDataBuilder();
+    private final ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+
+    /**
+     * Sets up.
+     */
+    @Setup
+    public void setUp() {
+        PulseWaveList list = switch (waveform) {
+            case "SMOOTH" -> PulseWaveListGenerator.smoothPulse(100, 50, duration);
+            case "GRADIENT" -> PulseWaveListGenerator.gradientPulse(100, 0, 100, duration);
+            default -> PulseWaveListGenerator.sinPulse(20, 0, 100, duration);
+        };
+        packed = PackedPulseWaveList.fromPulseWaveList(list);
+        compressed = CompressedPulseWaveList.of(packed);
+        frames = new long[packed.size()];
+        System.out.printf("%n%s: %d frames, %d -> %d bytes, ratio %.2f%n", waveform, packed.size(),
+                packed.size() * 8, compressed.compressedBytes(), compressed.compressionRatio());
+    }
+
+    /**
+     * 压缩
+     *
+     * @return the compressed pulse wave list
+     */
+    @Benchmark
+    public CompressedPulseWaveList compress() {
+        return CompressedPulseWaveList.of(packed);
+    }
+
+    /**
+     * 顺序解压全部帧
+     *
+     * @return the long [ ]
+     */
+    @Benchmark
+    public long[] decodeAll() {
+        compressed.decode(0, frames, 0, frames.length);
+        return frames;
+    }
+
+    /**
+     * 对照：未压缩列表的复制
+     *
+     * @return the long [ ]
+     */
+    @Benchmark
+    public long[] copyPacked() {
+        packed.copyTo(0, packed.size(), frames, 0);
+        return frames;
+    }
+
+    /**
+     * 随机访问
+     *
+     * @return the long
+     */
+    @Benchmark
+    public long randomGet() {
+        next = (next + 397) % frames.length;
+        return compressed.get(next);
+    }
+
+    /**
+     * 由压缩波形直接写入发送格式
+     *
+     * @return the int
+     */
+    @Benchmark
+    public int writeCompressed() {
+        buffer.clear();
+        return builder.reset().ids("client", "target").pulse(Channel.A, compressed).writeTo(buffer);
+    }
+
+    /**
+     * 对照：由未压缩列表写入发送格式
+     *
+     * @return the int
+     */
+    @Benchmark
+    public int writePacked() {
+        buffer.clear();
+        return builder.reset().ids("client", "target").pulse(Channel.A, packed).writeTo(buffer);
+    }
+}
@@ -0,0 +1,123 @@
+/*******************************************************************************
+ * Copyright (c) 2024-2025 R3944Realms. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.r3944realms.dg_lab_api.benchmark;
+
+import com.r3944realms.dg_lab_api.message.IPowerBoxMsg;
+import com.r3944realms.dg_lab_api.message.argType.ChangePolicy;
+import com.r3944realms.dg_lab_api.message.argType.Channel;
+import com.r3944realms.dg_lab_api.message.data.PulseWaveListGenerator;
+import com.r3944realms.dg_lab_api.websocket.message.MessageDirection;
+import com.r3944realms.dg_lab_api.websocket.message.PowerBoxMessage;
+import com.r3944realms.dg_lab_api.websocket.message.data.PowerBoxData;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 消息 JSON 编解码
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MessageCodecBenchmark {
+    /**
+     * 消息种类
+     */
+    @Param({"strength", "pulse", "heartbeat"})
+    public String kind;
+
+    private PowerBoxMessage message;
+    private String dataJson;
+    private String msgJson;
+    private ByteBuffer buffer;
+
+    /**
+     * Sets up.
+     */
+    @Setup
+    public void setUp() {
+        String client = "3ab0773d-69d0-41af-b74b-9c6ce30ab7a5";
+        String target = "0e2d2e51-8a6c-4f8d-a6a1-3fd1f0e0f9f4";
+        IPowerBoxMsg msg = switch (kind) {
+            case "strength" -> new IPowerBoxMsg.StrengthChange(Channel.A, ChangePolicy.INCREASE, 5);
+            case "pulse" -> new IPowerBoxMsg.Pulse(Channel.A, PulseWaveListGenerator.sinPulse(20, 0, 100, 400), 5);
+            default -> null;
+        };
+        message = msg != null
+                ? msg.toPowerBoxMessage(client, target, MessageDirection.DirectType.SERVER_TO_APPLICATION)
+                : new PowerBoxMessage(new PowerBoxData("heartbeat", client, target, "200"),
+                MessageDirection.of(MessageDirection.DirectType.SERVER_TO_APPLICATION, client, target));
+        dataJson = message.getDataJson();
+        msgJson = message.getMsgJson();
+        buffer = ByteBuffer.allocateDirect(64 * 1024);
+    }
+
+    /**
+     * Gets data json.
+     *
+     * @return the data json
+     */
+    @Benchmark
+    public String getDataJson() {
+        return message.getDataJson();
+    }
+
+    /**
+     * Gets msg json.
+     *
+     * @return the msg json
+     */
+    @Benchmark
+    public String getMsgJson() {
+        return message.getMsgJson();
+    }
+
+    /**
+     * Write msg json.
+     *
+     * @return the int
+     */
+    @Benchmark
+    public int writeMsgJson() {
+        buffer.clear();
+        return message.writeMsgJson(buffer, false);
+    }
+
+    /**
+     * Gets payload.
+     *
+     * @return the payload
+     */
+    @Benchmark
+    public PowerBoxData getPayload() {
+        return message.getPayload(dataJson);
+    }
+
+    /**
+     * Gets message.
+     *
+     * @return the message
+     */
+    @Benchmark
+    public PowerBoxMessage getMessage() {
+        return message.getMessage(msgJson);
+    }
+}
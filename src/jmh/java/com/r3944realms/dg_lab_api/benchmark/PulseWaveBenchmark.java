@@ -0,0 +1,138 @@
+/*******************************************************************************
+ * Copyright (c) 2024-2025 R3944Realms. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.r3944realms.dg_lab_api.benchmark;
+
+import com.r3944realms.dg_lab_api.message.data.ImmutablePulseWaveList;
+import com.r3944realms.dg_lab_api.message.data.PulseWave;
+import com.r3944realms.dg_lab_api.message.data.PulseWaveList;
+import com.r3944realms.dg_lab_api.message.data.PulseWaveListGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 波形编码与生成
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PulseWaveBenchmark {
+    /**
+     * 波形时长（25ms 为单位，400 即 100 段）
+     */
+    @Param({"40", "400"})
+    public int duration;
+
+    private PulseWave wave;
+    private String hex;
+    private PulseWaveList list;
+    private ImmutablePulseWaveList frozen;
+
+    /**
+     * Sets up.
+     */
+    @Setup
+    public void setUp() {
+        wave = new PulseWave(10, 20, 30, 40, 0, 25, 50, 100);
+        hex = wave.toHexString();
+        list = PulseWaveListGenerator.sinPulse(20, 0, 100, duration);
+        frozen = list.freeze();
+    }
+
+    /**
+     * To hex string.
+     *
+     * @return the string
+     */
+    @Benchmark
+    public String toHexString() {
+        return wave.toHexString();
+    }
+
+    /**
+     * From hex.
+     *
+     * @return the pulse wave
+     */
+    @Benchmark
+    public PulseWave fromHex() {
+        return PulseWave.fromHex(hex);
+    }
+
+    /**
+     * To list string.
+     *
+     * @return the string
+     */
+    @Benchmark
+    public String toListString() {
+        return list.toListString();
+    }
+
+    /**
+     * To list string frozen.
+     *
+     * @return the string
+     */
+    @Benchmark
+    public String toListStringFrozen() {
+        return frozen.toListString();
+    }
+
+    /**
+     * Sin pulse.
+     *
+     * @return the pulse wave list
+     */
+    @Benchmark
+    public PulseWaveList sinPulse() {
+        return PulseWaveListGenerator.sinPulse(20, 0, 100, duration);
+    }
+
+    /**
+     * Gradient pulse.
+     *
+     * @return the pulse wave list
+     */
+    @Benchmark
+    public PulseWaveList gradientPulse() {
+        return PulseWaveListGenerator.gradientPulse(20, 0, 100, duration);
+    }
+
+    /**
+     * Smooth pulse.
+     *
+     * @return the pulse wave list
+     */
+    @Benchmark
+    public PulseWaveList smoothPulse() {
+        return PulseWaveListGenerator.smoothPulse(20, 50, duration);
+    }
+
+    /**
+     * Cached sin pulse.
+     *
+     * @return the pulse wave list
+     */
+    @Benchmark
+    public PulseWaveList cachedSinPulse() {
+        return PulseWaveListGenerator.cachedSinPulse(20, 0, 100, duration);
+    }
+}
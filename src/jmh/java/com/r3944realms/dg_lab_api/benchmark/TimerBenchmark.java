@@ -0,0 +1,94 @@
+/*******************************************************************************
+ * Copyright (c) 2024-2025 R3944Realms. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.r3944realms.dg_lab_api.benchmark;
+
+import com.r3944realms.dg_lab_api.scheduler.HashedTimingWheel;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 时间轮与 {@link ScheduledThreadPoolExecutor} 对比：在已有 100k 个待执行定时任务时，插入并取消一个任务的开销
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TimerBenchmark {
+    /**
+     * 背景中的待执行任务数
+     */
+    @Param({"100000"})
+    public int pending;
+
+    private static final Runnable NOOP = () -> {};
+    private HashedTimingWheel wheel;
+    private ScheduledThreadPoolExecutor executor;
+
+    /**
+     * Sets up.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        wheel = new HashedTimingWheel();
+        executor = new ScheduledThreadPoolExecutor(1);
+        executor.setRemoveOnCancelPolicy(true);
+        for (int i = 0; i < pending; i++) {
+            // 足够长，测量期间不会到期
+            long delay = 600_000 + i;
+            wheel.schedule(NOOP, delay, TimeUnit.MILLISECONDS);
+            executor.schedule(NOOP, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Tear down.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        wheel.close();
+        executor.shutdownNow();
+    }
+
+    /**
+     * Timing wheel schedule and cancel.
+     *
+     * @return the boolean
+     */
+    @Benchmark
+    @Threads(4)
+    public boolean timingWheel() {
+        HashedTimingWheel.Timeout timeout = wheel.schedule(NOOP, 500, TimeUnit.MILLISECONDS);
+        return timeout.cancel();
+    }
+
+    /**
+     * Scheduled executor schedule and cancel.
+     *
+     * @return the boolean
+     */
+    @Benchmark
+    @Threads(4)
+    public boolean scheduledExecutor() {
+        ScheduledFuture<?> future = executor.schedule(NOOP, 500, TimeUnit.MILLISECONDS);
+        return future.cancel(false);
+    }
+}
@@ -20,18 +20,20 @@ import com.r3944realms.dg_lab_api.dataType.PowerBoxCommands;
 import com.r3944realms.dg_lab_api.dataType.PowerBoxMsgType;
 import com.r3944realms.dg_lab_api.message.argType.ChangePolicy;
 import com.r3944realms.dg_lab_api.message.argType.Channel;
+import com.r3944realms.dg_lab_api.message.data.HexCodec;
+import com.r3944realms.dg_lab_api.message.data.ImmutablePulseWaveList;
+import com.r3944realms.dg_lab_api.message.data.PulseWave;
 import com.r3944realms.dg_lab_api.message.data.PulseWaveList;
 import com.r3944realms.dg_lab_api.message.data.PulseWaveListGenerator;
 import com.r3944realms.dg_lab_api.exception.NoMatchDataTypeException;
 import com.r3944realms.dg_lab_api.websocket.message.MessageDirection;
 import com.r3944realms.dg_lab_api.websocket.message.PowerBoxMessage;
+import com.r3944realms.dg_lab_api.websocket.message.data.PowerBoxCommand;
 import com.r3944realms.dg_lab_api.websocket.message.data.PowerBoxDataWithSingleAttachment;
 import com.r3944realms.dg_lab_api.websocket.message.data.PowerBoxData;
 import com.r3944realms.dg_lab_api.websocket.message.data.type.PowerBoxDataType;
 import com.r3944realms.dg_lab_api.websocket.message.role.Role;
 
-import java.util.Arrays;
-
 /**
  * The interface Power box msg.
  */
@@ -110,6 +112,46 @@ public interface IPowerBoxMsg {
         return new PowerBoxMessage(toPowerBoxData(clientUUID, targetUUID), MessageDirection.of(type, senderName, receiverName));
     }
 
+    /**
+     * 同 {@link #toPowerBoxMessage(String, String, MessageDirection.DirectType)}，但使用 {@link MessageDirection#intern 共享的消息方向}。<br/>
+     * 适用于固定会话之间的频繁发送；其中的角色不可改名。
+     *
+     * @param clientUUID the client uuid
+     * @param targetUUID the target uuid
+     * @param type       the type
+     * @return the power box message
+     */
+    default PowerBoxMessage toInternedPowerBoxMessage(String clientUUID, String targetUUID, MessageDirection.DirectType type) {
+        return new PowerBoxMessage(toPowerBoxData(clientUUID, targetUUID), MessageDirection.intern(type, clientUUID, targetUUID));
+    }
+
+    /**
+     * 同 {@link #toPowerBoxMessage(String, String, String, MessageDirection.DirectType)}，但使用 {@link MessageDirection#intern 共享的消息方向}。
+     *
+     * @param clientUUID   the client uuid
+     * @param targetUUID   the target uuid
+     * @param receiverName the receiver name
+     * @param type         the type
+     * @return the power box message
+     */
+    default PowerBoxMessage toInternedPowerBoxMessage(String clientUUID, String targetUUID, String receiverName, MessageDirection.DirectType type) {
+        return new PowerBoxMessage(toPowerBoxData(clientUUID, targetUUID), MessageDirection.intern(type, clientUUID, receiverName));
+    }
+
+    /**
+     * 同 {@link #toPowerBoxMessage(String, String, String, String, MessageDirection.DirectType)}，但使用 {@link MessageDirection#intern 共享的消息方向}。
+     *
+     * @param clientUUID   the client uuid
+     * @param targetUUID   the target uuid
+     * @param senderName   the sender name
+     * @param receiverName the receiver name
+     * @param type         the type
+     * @return the power box message
+     */
+    default PowerBoxMessage toInternedPowerBoxMessage(String clientUUID, String targetUUID, String senderName, String receiverName, MessageDirection.DirectType type) {
+        return new PowerBoxMessage(toPowerBoxData(clientUUID, targetUUID), MessageDirection.intern(type, senderName, receiverName));
+    }
+
     /**
      * The type Strength.
      */
@@ -129,10 +171,9 @@ public interface IPowerBoxMsg {
          */
         public static StrengthChange read(PowerBoxMessage msg) throws NoMatchDataTypeException {
             if (msg.commandType != PowerBoxDataType.STRENGTH) throw new NoMatchDataTypeException();
-            PowerBoxData payload = msg.getPayload();
-            Object[] argsArrayByPointing = payload.getArgsArrayByPointing(msg.commandType);
-            if (argsArrayByPointing.length != 3) throw new NoMatchDataTypeException();
-            return new StrengthChange(Channel.getChannel((Integer) argsArrayByPointing[0]), ChangePolicy.getChangePolicy((Integer) argsArrayByPointing[1]), (Integer) argsArrayByPointing[2]);
+            int[] args = new int[3];
+            if (!msg.getPayload().strengthChange(args)) throw new NoMatchDataTypeException();
+            return new StrengthChange(Channel.getChannel(args[0]), ChangePolicy.getChangePolicy(args[1]), args[2]);
         }
     }
 
@@ -155,10 +196,9 @@ public interface IPowerBoxMsg {
          */
         public static StrengthInfo read(PowerBoxMessage msg) throws NoMatchDataTypeException {
             if (msg.commandType != PowerBoxDataType.STRENGTH) throw new NoMatchDataTypeException();
-            PowerBoxData payload = msg.getPayload();
-            Object[] argsArrayByPointing = payload.getArgsArrayByPointing(msg.commandType);
-            if (argsArrayByPointing.length != 4) throw new NoMatchDataTypeException();
-            return new StrengthInfo((Integer) argsArrayByPointing[0], (Integer) argsArrayByPointing[1], (Integer) argsArrayByPointing[2], (Integer) argsArrayByPointing[3]);
+            int[] args = new int[4];
+            if (!msg.getPayload().strengthInfo(args)) throw new NoMatchDataTypeException();
+            return new StrengthInfo(args[0], args[1], args[2], args[3]);
         }
     }
 
@@ -181,9 +221,9 @@ public interface IPowerBoxMsg {
          */
         public static Clear read(PowerBoxMessage msg) throws NoMatchDataTypeException {
             if (msg.commandType != PowerBoxDataType.CLEAR) throw new NoMatchDataTypeException();
-            PowerBoxData payload = msg.getPayload();
-            Object[] argsArrayByPointing = payload.getArgsArrayByPointing(msg.commandType);
-            return new Clear(Channel.getChannel((Integer) argsArrayByPointing[0]));
+            int[] args = new int[1];
+            if (msg.getPayload().readIntArguments(PowerBoxDataType.CLEAR, args) < 1) throw new NoMatchDataTypeException();
+            return new Clear(Channel.getChannel(args[0]));
         }
     }
 
@@ -206,9 +246,9 @@ public interface IPowerBoxMsg {
          */
         public static Feedback read(PowerBoxMessage msg) throws NoMatchDataTypeException {
             if (msg.commandType != PowerBoxDataType.FEEDBACK) throw new NoMatchDataTypeException();
-            PowerBoxData payload = msg.getPayload();
-            Object[] argsArrayByPointing = payload.getArgsArrayByPointing(msg.commandType);
-            return new Feedback((Integer) argsArrayByPointing[0]);
+            int[] args = new int[1];
+            if (msg.getPayload().readIntArguments(PowerBoxDataType.FEEDBACK, args) < 1) throw new NoMatchDataTypeException();
+            return new Feedback(args[0]);
         }
     }
 
@@ -249,7 +289,9 @@ public interface IPowerBoxMsg {
 
         @Override
         public PowerBoxDataWithSingleAttachment toPowerBoxData(String clientUUID, String targetUUID) {
-            String msg = "pulse-" + channel.index_char + ":" + pulseWaveList.toListString();
+            String msg = pulseWaveList instanceof ImmutablePulseWaveList frozen
+                    ? frozen.toCommand(channel)
+                    : "pulse-" + channel.index_char + ":" + pulseWaveList.toListString();
             return new PowerBoxData(PowerBoxMsgType.CLIENT_MSG, clientUUID, targetUUID, msg).withSingleAttachment(timer);
         }
 
@@ -262,10 +304,19 @@ public interface IPowerBoxMsg {
          */
         public static Pulse read(PowerBoxMessage msg) throws NoMatchDataTypeException {
             PowerBoxData payload = msg.getPayload();
-            PowerBoxDataType commandType = payload.getCommandType(true);
-            if (commandType != PowerBoxDataType.PULSE) throw new NoMatchDataTypeException();
-            Object[] argsArrayByPointing = payload.getArgsArrayByPointing(commandType);//10 0 1 ~ 9
-            return new Pulse(Channel.getChannel(((String)argsArrayByPointing[0]).charAt(0)), Arrays.copyOfRange((String[])argsArrayByPointing, 1, argsArrayByPointing.length - 1));
+            if (payload.getCommandType(true) != PowerBoxDataType.PULSE) throw new NoMatchDataTypeException();
+            PowerBoxCommand command = payload.getParsedCommand();
+            Channel channel = command.channel();
+            if (channel == null || !command.hasFrames()) throw new NoMatchDataTypeException();
+            String source = command.source();
+            PulseWaveList waves = new PulseWaveList();
+            for (int i = 0, n = command.frameCount(); i < n; i++) {
+                int start = command.frameStart(i);
+                if (command.frameEnd(i) - start != HexCodec.FRAME_LENGTH)
+                    throw new IllegalArgumentException("Invalid hex string");
+                waves.add(PulseWave.fromPacked(HexCodec.decode(source, start)));
+            }
+            return new Pulse(channel, waves);
         }
     }
 }
@@ -17,6 +17,7 @@
 package com.r3944realms.dg_lab_api.message.adapter;
 
 import com.google.gson.*;
+import com.r3944realms.dg_lab_api.message.data.HexCodec;
 import com.r3944realms.dg_lab_api.message.data.PulseWave;
 
 import java.lang.reflect.Type;
@@ -51,11 +52,11 @@ public class PulseWaveAdapter implements JsonSerializer<PulseWave>, JsonDeserial
      * 解析16进制字符串（格式：16字符，如 "0A1E1422805A4632"）
      */
     private PulseWave parseHexString(String hex) {
-        hex = hex.toUpperCase().trim();
-        if (!hex.matches("^[0-9A-F]{16}$")) {
+        hex = hex.trim();
+        if (hex.length() != HexCodec.FRAME_LENGTH || !HexCodec.isHex(hex, 0, HexCodec.FRAME_LENGTH)) {
             throw new JsonParseException("Invalid hex format: must be 16 uppercase hex characters");
         }
-        return PulseWave.fromHex(hex);
+        return PulseWave.fromPacked(HexCodec.decode(hex, 0));
     }
     /**
      * 解析对象格式（{"frequencies":[...], "strengths":[...]}）
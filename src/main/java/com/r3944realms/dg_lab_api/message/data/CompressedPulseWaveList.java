@@ -0,0 +1,452 @@
+/*******************************************************************************
+ * Copyright (c) 2024-2025 R3944Realms. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.r3944realms.dg_lab_api.message.data;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.LongConsumer;
+
+/**
+ * 压缩存储的不可变波形列表，用于大量波形常驻内存或写入磁盘<br/>
+ * 波形帧（见 {@link PackedPulseWave}）每 64 帧为一块，块首帧原样保存8字节，其后为若干操作：
+ * <pre>
+ * varint(次数) 掩码(1) [varint(zigzag(差值))]...   // 掩码中每一位对应一个字节通道（低位在前）
+ * </pre>
+ * 每个操作将同一组逐字节差值连续应用若干次：重复帧即差值为0，线性渐变即差值相同，
+ * 因此 {@link PulseWaveListGenerator#smoothPulse(int, int, int)}、{@link PulseWaveListGenerator#gradientPulse(int, int, int, int)}
+ * 等波形可压缩到原大小的几十分之一。按块记录偏移，随机访问最多解码一块；也可按顺序批量解码到调用方的缓冲区。
+ */
+public final class CompressedPulseWaveList {
+    /**
+     * 每块的帧数
+     */
+    public static final int BLOCK_FRAMES = 64;
+    private static final int BLOCK_SHIFT = 6;
+    private static final int LANES = PackedPulseWave.BYTES;
+
+    private final String name;
+    private final int size;
+    private final byte[] data;
+    private final int[] blockOffsets;
+
+    private CompressedPulseWaveList(String name, int size, byte[] data, int[] blockOffsets) {
+        this.name = name;
+        this.size = size;
+        this.data = data;
+        this.blockOffsets = blockOffsets;
+    }
+
+    /**
+     * 压缩波形列表
+     *
+     * @param list the list
+     * @return the compressed pulse wave list
+     */
+    public static CompressedPulseWaveList of(PulseWaveList list) {
+        List<PulseWave> waves = list.getList();
+        long[] frames = new long[waves.size()];
+        for (int i = 0; i < frames.length; i++) frames[i] = waves.get(i).toPacked();
+        return encode(list.getName(), frames, 0, frames.length);
+    }
+
+    /**
+     * 压缩波形列表
+     *
+     * @param list the list
+     * @return the compressed pulse wave list
+     */
+    public static CompressedPulseWaveList of(PackedPulseWaveList list) {
+        return encode(list.getName(), list.toArray(), 0, list.size());
+    }
+
+    /**
+     * 压缩波形帧
+     *
+     * @param name   名称
+     * @param frames 打包后的波形帧
+     * @param offset 起始下标
+     * @param length 帧数
+     * @return the compressed pulse wave list
+     * @throws IllegalArgumentException 存在不合法的波形帧
+     */
+    public static CompressedPulseWaveList of(String name, long[] frames, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, frames.length);
+        for (int i = offset; i < offset + length; i++) PackedPulseWave.validate(frames[i]);
+        return encode(name, frames, offset, length);
+    }
+
+    private static CompressedPulseWaveList encode(String name, long[] frames, int offset, int length) {
+        int blocks = (length + BLOCK_FRAMES - 1) >>> BLOCK_SHIFT;
+        int[] blockOffsets = new int[blocks];
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(16, length));
+        for (int block = 0; block < blocks; block++) {
+            blockOffsets[block] = out.size();
+            int start = offset + (block << BLOCK_SHIFT);
+            int end = Math.min(offset + length, start + BLOCK_FRAMES);
+            writeFrame(out, frames[start]);
+            int i = start + 1;
+            while (i < end) {
+                long previous = frames[i - 1];
+                int run = 1;
+                while (i + run < end && sameDelta(frames[i + run - 1], frames[i + run], previous, frames[i])) run++;
+                writeVarint(out, run);
+                writeDelta(out, previous, frames[i]);
+                i += run;
+            }
+        }
+        return new CompressedPulseWaveList(name == null ? "" : name, length, out.toByteArray(), blockOffsets);
+    }
+
+    private static boolean sameDelta(long from, long to, long expectedFrom, long expectedTo) {
+        for (int lane = 0; lane < LANES; lane++) {
+            if (lane(to, lane) - lane(from, lane) != lane(expectedTo, lane) - lane(expectedFrom, lane)) return false;
+        }
+        return true;
+    }
+
+    private static int lane(long frame, int lane) {
+        return (int) (frame >>> (lane << 3)) & 0xFF;
+    }
+
+    private static void writeFrame(ByteArrayOutputStream out, long frame) {
+        for (int lane = 0; lane < LANES; lane++) out.write(lane(frame, lane));
+    }
+
+    private static void writeDelta(ByteArrayOutputStream out, long from, long to) {
+        int mask = 0;
+        for (int lane = 0; lane < LANES; lane++) {
+            if (lane(from, lane) != lane(to, lane)) mask |= 1 << lane;
+        }
+        out.write(mask);
+        for (int lane = 0; lane < LANES; lane++) {
+            if ((mask & (1 << lane)) == 0) continue;
+            int delta = lane(to, lane) - lane(from, lane);
+            writeVarint(out, (delta << 1) ^ (delta >> 31));
+        }
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    /**
+     * 名称
+     *
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 帧数
+     *
+     * @return the int
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Is empty boolean.
+     *
+     * @return the boolean
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * 随机访问一帧
+     *
+     * @param index 下标
+     * @return 打包后的波形帧
+     */
+    public long get(int index) {
+        Objects.checkIndex(index, size);
+        int block = index >>> BLOCK_SHIFT;
+        int pos = blockOffsets[block];
+        long current = readFrame(pos);
+        pos += LANES;
+        int remaining = index - (block << BLOCK_SHIFT);
+        while (remaining > 0) {
+            int run = 0;
+            int shift = 0;
+            int b;
+            do {
+                b = data[pos++];
+                run |= (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            int mask = data[pos++] & 0xFF;
+            int steps = Math.min(run, remaining);
+            for (int lane = 0; lane < LANES; lane++) {
+                if ((mask & (1 << lane)) == 0) continue;
+                int zigzag = data[pos++] & 0xFF;
+                if (zigzag >= 0x80) zigzag = (zigzag & 0x7F) | ((data[pos++] & 0xFF) << 7);
+                int delta = (zigzag >>> 1) ^ -(zigzag & 1);
+                current += (long) (delta * steps) << (lane << 3);
+            }
+            remaining -= steps;
+        }
+        return current;
+    }
+
+    /**
+     * 随机访问一帧
+     *
+     * @param index 下标
+     * @return the pulse wave
+     */
+    public PulseWave getWave(int index) {
+        return PulseWave.fromPacked(get(index));
+    }
+
+    /**
+     * 从指定下标开始按顺序解码到调用方的缓冲区，不产生对象
+     *
+     * @param from   起始帧下标
+     * @param dest   目标数组
+     * @param offset 目标起始下标
+     * @param length 最多解码的帧数
+     * @return 实际解码的帧数
+     */
+    public int decode(int from, long[] dest, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, dest.length);
+        Objects.checkIndex(from, size + 1);
+        int count = Math.min(length, size - from);
+        if (count == 0) return 0;
+        int block = from >>> BLOCK_SHIFT;
+        int pos = blockOffsets[block];
+        int index = block << BLOCK_SHIFT;
+        int written = 0;
+        while (true) {
+            // 块首帧
+            long current = readFrame(pos);
+            pos += LANES;
+            int blockEnd = Math.min(size, index + BLOCK_FRAMES);
+            if (index >= from) {
+                dest[offset + written++] = current;
+                if (written == count) return count;
+            }
+            index++;
+            while (index < blockEnd) {
+                int run = 0;
+                int shift = 0;
+                int b;
+                do {
+                    b = data[pos++];
+                    run |= (b & 0x7F) << shift;
+                    shift += 7;
+                } while ((b & 0x80) != 0);
+                int mask = data[pos++] & 0xFF;
+                long plus = 0;
+                long minus = 0;
+                for (int lane = 0; lane < LANES; lane++) {
+                    if ((mask & (1 << lane)) == 0) continue;
+                    int zigzag = data[pos++] & 0xFF;
+                    if (zigzag >= 0x80) zigzag = (zigzag & 0x7F) | ((data[pos++] & 0xFF) << 7);
+                    int delta = (zigzag >>> 1) ^ -(zigzag & 1);
+                    if (delta > 0) plus |= (long) delta << (lane << 3);
+                    else minus |= (long) -delta << (lane << 3);
+                }
+                // 各通道结果均在 0~255 之间，按整个 long 加减不会跨通道进位或借位
+                if (index + run <= from) {
+                    current += run * plus - run * minus;
+                    index += run;
+                    continue;
+                }
+                if (index < from) {
+                    int skip = from - index;
+                    current += skip * plus - skip * minus;
+                    index = from;
+                    run -= skip;
+                }
+                for (int i = 0; i < run; i++) {
+                    current += plus - minus;
+                    dest[offset + written++] = current;
+                    if (written == count) return count;
+                }
+                index += run;
+            }
+        }
+    }
+
+    private long readFrame(int pos) {
+        long frame = 0;
+        for (int lane = 0; lane < LANES; lane++) frame |= (long) (data[pos + lane] & 0xFF) << (lane << 3);
+        return frame;
+    }
+
+    /**
+     * 按顺序遍历全部帧
+     *
+     * @param action the action
+     */
+    public void forEach(LongConsumer action) {
+        long[] chunk = new long[BLOCK_FRAMES];
+        for (int from = 0; from < size; from += BLOCK_FRAMES) {
+            int count = decode(from, chunk, 0, BLOCK_FRAMES);
+            for (int i = 0; i < count; i++) action.accept(chunk[i]);
+        }
+    }
+
+    /**
+     * 解压为打包波形列表
+     *
+     * @return the packed pulse wave list
+     */
+    public PackedPulseWaveList toPackedPulseWaveList() {
+        long[] frames = new long[size];
+        decode(0, frames, 0, size);
+        PackedPulseWaveList list = PackedPulseWaveList.of(frames);
+        list.setName(name);
+        return list;
+    }
+
+    /**
+     * 解压为波形列表
+     *
+     * @return the pulse wave list
+     */
+    public PulseWaveList toPulseWaveList() {
+        return toPackedPulseWaveList().toPulseWaveList();
+    }
+
+    /**
+     * 压缩后占用的字节数（数据与块偏移）
+     *
+     * @return the int
+     */
+    public int compressedBytes() {
+        return data.length + blockOffsets.length * Integer.BYTES;
+    }
+
+    /**
+     * 压缩比：原始大小（每帧8字节）/ 压缩后大小
+     *
+     * @return the double
+     */
+    public double compressionRatio() {
+        int compressed = compressedBytes();
+        return compressed == 0 ? 1 : (double) size * PackedPulseWave.BYTES / compressed;
+    }
+
+    /**
+     * 序列化，用于写入磁盘：varint(名称字节数) 名称(UTF-8) varint(帧数) 压缩数据
+     *
+     * @return the byte [ ]
+     */
+    public byte[] toByteArray() {
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length + nameBytes.length + 10);
+        writeVarint(out, nameBytes.length);
+        out.writeBytes(nameBytes);
+        writeVarint(out, size);
+        out.writeBytes(data);
+        return out.toByteArray();
+    }
+
+    /**
+     * 反序列化 {@link #toByteArray()} 的结果，并校验全部帧
+     *
+     * @param bytes the bytes
+     * @return the compressed pulse wave list
+     * @throws IllegalArgumentException 数据损坏
+     */
+    public static CompressedPulseWaveList fromByteArray(byte[] bytes) {
+        try {
+            int[] pos = {0};
+            int nameLength = readVarint(bytes, pos);
+            String name = new String(bytes, pos[0], nameLength, StandardCharsets.UTF_8);
+            pos[0] += nameLength;
+            int size = readVarint(bytes, pos);
+            if (size < 0) throw new IllegalArgumentException("Invalid frame count");
+            // 每块至少有一个原样存放的首帧，先按剩余长度限制帧数再分配
+            long blocks = ((long) size + BLOCK_FRAMES - 1) >>> BLOCK_SHIFT;
+            if (blocks * PackedPulseWave.BYTES > bytes.length - pos[0]) throw new IllegalArgumentException("Truncated data");
+            byte[] data = Arrays.copyOfRange(bytes, pos[0], bytes.length);
+            int[] blockOffsets = new int[(int) blocks];
+            int p = 0;
+            for (int block = 0; block < blockOffsets.length; block++) {
+                blockOffsets[block] = p;
+                p += LANES;
+                int remaining = Math.min(BLOCK_FRAMES, size - (block << BLOCK_SHIFT)) - 1;
+                int[] at = {p};
+                while (remaining > 0) {
+                    int run = readVarint(data, at);
+                    if (run <= 0 || run > remaining) throw new IllegalArgumentException("Invalid run length");
+                    int mask = data[at[0]++] & 0xFF;
+                    for (int lane = 0; lane < LANES; lane++) {
+                        if ((mask & (1 << lane)) != 0) readVarint(data, at);
+                    }
+                    remaining -= run;
+                }
+                p = at[0];
+            }
+            if (p != data.length) throw new IllegalArgumentException("Trailing bytes");
+            CompressedPulseWaveList list = new CompressedPulseWaveList(name, size, data, blockOffsets);
+            long[] frames = new long[size];
+            list.decode(0, frames, 0, size);
+            for (int i = 0; i < size; i++) {
+                if (!PackedPulseWave.isValid(frames[i])) throw new IllegalArgumentException("Invalid frame at " + i);
+            }
+            // 编码是确定的，重新编码可发现任何不是由本类产生的数据（如跨通道进位）
+            if (!Arrays.equals(data, encode(name, frames, 0, size).data)) throw new IllegalArgumentException("Non-canonical data");
+            return list;
+        } catch (IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Truncated data", e);
+        }
+    }
+
+    private static int readVarint(byte[] bytes, int[] pos) {
+        int value = 0;
+        int shift = 0;
+        int b;
+        do {
+            if (shift > 28) throw new IllegalArgumentException("Varint too long");
+            b = bytes[pos[0]++];
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof CompressedPulseWaveList other)) return false;
+        return size == other.size && Arrays.equals(data, other.data);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * size + Arrays.hashCode(data);
+    }
+
+    @Override
+    public String toString() {
+        return "CompressedPulseWaveList{name='" + name + "', size=" + size + ", compressedBytes=" + compressedBytes() + "}";
+    }
+}
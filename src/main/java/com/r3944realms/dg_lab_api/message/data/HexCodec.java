@@ -0,0 +1,183 @@
+/*******************************************************************************
+ * Copyright (c) 2024-2025 R3944Realms. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.r3944realms.dg_lab_api.message.data;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * 查表实现的波形16进制编解码<br/>
+ * 每段波形固定为16个16进制字符（见 {@link PackedPulseWave}），
+ * 编码直接写入目标数组，解码直接读取 {@link CharSequence} 的区间，不创建子串；
+ * 解码时在同一遍扫描中完成字符与取值范围的校验。
+ */
+public final class HexCodec {
+    /**
+     * 每段波形的16进制字符数
+     */
+    public static final int FRAME_LENGTH = 16;
+    /**
+     * {@link #tryDecode(CharSequence, int)} 失败时的返回值（波频为0xFF，不可能是有效波形）
+     */
+    public static final long INVALID = -1L;
+
+    private static final char[] DIGITS = "0123456789ABCDEF".toCharArray();
+    private static final byte[] DIGIT_BYTES = {
+            '0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'A', 'B', 'C', 'D', 'E', 'F'
+    };
+    /**
+     * 字符 -> 数值，非16进制字符为 -1
+     */
+    private static final byte[] VALUES = new byte[128];
+
+    static {
+        Arrays.fill(VALUES, (byte) -1);
+        for (int i = 0; i < 10; i++) VALUES['0' + i] = (byte) i;
+        for (int i = 0; i < 6; i++) {
+            VALUES['A' + i] = (byte) (10 + i);
+            VALUES['a' + i] = (byte) (10 + i);
+        }
+    }
+
+    private HexCodec() {}
+
+    /**
+     * 编码到字符数组
+     *
+     * @param packed 打包后的波形
+     * @param dest   目标数组
+     * @param offset 起始位置，需留有 {@link #FRAME_LENGTH} 个字符
+     */
+    public static void encode(long packed, char[] dest, int offset) {
+        for (int i = offset + FRAME_LENGTH - 1; i >= offset; i--) {
+            dest[i] = DIGITS[(int) packed & 0xF];
+            packed >>>= 4;
+        }
+    }
+
+    /**
+     * 编码到字节数组（ASCII）
+     *
+     * @param packed 打包后的波形
+     * @param dest   目标数组
+     * @param offset 起始位置，需留有 {@link #FRAME_LENGTH} 个字节
+     */
+    public static void encode(long packed, byte[] dest, int offset) {
+        for (int i = offset + FRAME_LENGTH - 1; i >= offset; i--) {
+            dest[i] = DIGIT_BYTES[(int) packed & 0xF];
+            packed >>>= 4;
+        }
+    }
+
+    /**
+     * 编码到缓冲区（ASCII），写入后 position 前进 {@link #FRAME_LENGTH}
+     *
+     * @param packed 打包后的波形
+     * @param buffer 目标缓冲区
+     */
+    public static void encode(long packed, ByteBuffer buffer) {
+        for (int shift = 60; shift >= 0; shift -= 4) {
+            buffer.put(DIGIT_BYTES[(int) (packed >>> shift) & 0xF]);
+        }
+    }
+
+    /**
+     * 编码为字符串
+     *
+     * @param packed 打包后的波形
+     * @return 如 "0A0A0A0A00000000"
+     */
+    public static String toHexString(long packed) {
+        char[] chars = new char[FRAME_LENGTH];
+        encode(packed, chars, 0);
+        return new String(chars);
+    }
+
+    /**
+     * 解码并校验取值范围
+     *
+     * @param hex    源字符串
+     * @param offset 起始位置，需有 {@link #FRAME_LENGTH} 个字符
+     * @return 打包后的波形
+     * @throws IllegalArgumentException 非法字符或超出范围
+     */
+    public static long decode(CharSequence hex, int offset) {
+        long packed = decodeRaw(hex, offset);
+        return PackedPulseWave.validate(packed);
+    }
+
+    /**
+     * 解码，不校验取值范围
+     *
+     * @param hex    源字符串
+     * @param offset 起始位置，需有 {@link #FRAME_LENGTH} 个字符
+     * @return 打包后的波形
+     * @throws IllegalArgumentException 非法字符或长度不足
+     */
+    public static long decodeRaw(CharSequence hex, int offset) {
+        if (offset < 0 || hex.length() - offset < FRAME_LENGTH)
+            throw new IllegalArgumentException("Invalid hex string");
+        long packed = 0;
+        int bad = 0;
+        for (int i = offset, end = offset + FRAME_LENGTH; i < end; i++) {
+            int value = valueOf(hex.charAt(i));
+            bad |= value;
+            packed = (packed << 4) | (value & 0xF);
+        }
+        if (bad < 0) throw new IllegalArgumentException("Invalid hex string");
+        return packed;
+    }
+
+    /**
+     * 解码并校验，失败时不抛出异常
+     *
+     * @param hex    源字符串
+     * @param offset 起始位置
+     * @return 打包后的波形，失败时为 {@link #INVALID}
+     */
+    public static long tryDecode(CharSequence hex, int offset) {
+        if (offset < 0 || hex.length() - offset < FRAME_LENGTH) return INVALID;
+        long packed = 0;
+        int bad = 0;
+        for (int i = offset, end = offset + FRAME_LENGTH; i < end; i++) {
+            int value = valueOf(hex.charAt(i));
+            bad |= value;
+            packed = (packed << 4) | (value & 0xF);
+        }
+        return bad < 0 || !PackedPulseWave.isValid(packed) ? INVALID : packed;
+    }
+
+    /**
+     * [start, end) 区间是否全为16进制字符
+     *
+     * @param hex   源字符串
+     * @param start 起始位置
+     * @param end   结束位置（不含）
+     * @return the boolean
+     */
+    public static boolean isHex(CharSequence hex, int start, int end) {
+        int bad = 0;
+        for (int i = start; i < end; i++) {
+            bad |= valueOf(hex.charAt(i));
+        }
+        return bad >= 0;
+    }
+
+    private static int valueOf(char c) {
+        return c < 128 ? VALUES[c] : -1;
+    }
+}
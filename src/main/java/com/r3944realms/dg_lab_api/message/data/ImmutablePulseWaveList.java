@@ -0,0 +1,189 @@
+/*******************************************************************************
+ * Copyright (c) 2024-2025 R3944Realms. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.r3944realms.dg_lab_api.message.data;
+
+import com.google.common.collect.ImmutableList;
+import com.r3944realms.dg_lab_api.message.argType.Channel;
+import com.r3944realms.dg_lab_api.websocket.message.codec.Utf8JsonEncoder;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * 不可变波形列表<br/>
+ * 可在多个线程、多次发送之间安全共享，{@link #add(PulseWave)}、{@link #clear()} 与
+ * {@link #setName(String)} 均会抛出 {@link UnsupportedOperationException}。
+ * 发送格式的字符串、其UTF-8字节、各通道的指令与哈希值均在创建时计算一次；
+ * 指令的 JSON 字符串编码在首次写入时计算并缓存。
+ */
+public class ImmutablePulseWaveList extends PulseWaveList {
+    private final ImmutableList<PulseWave> waves;
+    private final String listString;
+    private final byte[] listBytes;
+    private final String[] commands;
+    private final int hash;
+    /**
+     * 各通道指令的 JSON 字符串编码，下标为 通道序号 * 2 + (fix ? 1 : 0)
+     */
+    private volatile byte[][] commandJson;
+
+    private ImmutablePulseWaveList(String name, ImmutableList<PulseWave> waves) {
+        super(name, waves);
+        this.waves = waves;
+        this.listString = super.toListString();
+        this.listBytes = listString.getBytes(StandardCharsets.UTF_8);
+        Channel[] channels = Channel.values();
+        this.commands = new String[channels.length];
+        for (Channel channel : channels) {
+            commands[channel.ordinal()] = "pulse-" + channel.index_char + ":" + listString;
+        }
+        this.hash = waves.hashCode();
+    }
+
+    /**
+     * 复制为不可变波形列表，若已是不可变的则直接返回
+     *
+     * @param list the list
+     * @return the immutable pulse wave list
+     */
+    public static ImmutablePulseWaveList copyOf(PulseWaveList list) {
+        if (list instanceof ImmutablePulseWaveList immutable) return immutable;
+        return new ImmutablePulseWaveList(list.getName(), ImmutableList.copyOf(list.getList()));
+    }
+
+    /**
+     * 波形段数
+     *
+     * @return the int
+     */
+    public int size() {
+        return waves.size();
+    }
+
+    /**
+     * 缓存的发送格式字符串
+     *
+     * @return 如 ["0A0A0A0A00000000","0A0A0A0A0A0A0A0A"]
+     */
+    @Override
+    public String toListString() {
+        return listString;
+    }
+
+    /**
+     * {@link #toListString()} 的UTF-8字节
+     *
+     * @return 副本
+     */
+    public byte[] toListBytes() {
+        return listBytes.clone();
+    }
+
+    /**
+     * {@link #toListString()} 的UTF-8字节长度
+     *
+     * @return the int
+     */
+    public int listByteLength() {
+        return listBytes.length;
+    }
+
+    /**
+     * 缓存的波形指令
+     *
+     * @param channel 通道
+     * @return 如 pulse-A:["0A0A0A0A00000000"]
+     */
+    public String toCommand(Channel channel) {
+        return commands[channel.ordinal()];
+    }
+
+    /**
+     * 将缓存的波形指令作为 JSON 字符串（含引号）写入缓冲区，与
+     * {@link Utf8JsonEncoder#writeString(ByteBuffer, CharSequence, boolean)} 写入 {@link #toCommand(Channel)} 的结果一致
+     *
+     * @param buffer  目标缓冲区
+     * @param channel 通道
+     * @param fix     是否去掉转义用的反斜杠
+     * @throws java.nio.BufferOverflowException 缓冲区空间不足
+     */
+    public void writeCommandJson(ByteBuffer buffer, Channel channel, boolean fix) {
+        byte[][] cached = commandJson;
+        if (cached == null) {
+            cached = encodeCommandJson();
+            commandJson = cached;
+        }
+        buffer.put(cached[channel.ordinal() * 2 + (fix ? 1 : 0)]);
+    }
+
+    private byte[][] encodeCommandJson() {
+        byte[][] encoded = new byte[commands.length * 2][];
+        for (int i = 0; i < encoded.length; i++) {
+            String command = commands[i / 2];
+            // 引号转义为 \"，其余均为 ASCII
+            ByteBuffer buffer = ByteBuffer.allocate(command.length() * 2 + 2);
+            Utf8JsonEncoder.writeString(buffer, command, i % 2 == 1);
+            encoded[i] = new byte[buffer.position()];
+            buffer.flip().get(encoded[i]);
+        }
+        return encoded;
+    }
+
+    @Override
+    public void setName(String name) {
+        throw new UnsupportedOperationException("ImmutablePulseWaveList cannot be renamed");
+    }
+
+    @Override
+    public void add(PulseWave wave) {
+        throw new UnsupportedOperationException("ImmutablePulseWaveList cannot be modified");
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException("ImmutablePulseWaveList cannot be modified");
+    }
+
+    /**
+     * 直接返回底层不可变列表，不再复制
+     *
+     * @return the list
+     */
+    @Override
+    public List<PulseWave> getList() {
+        return waves;
+    }
+
+    /**
+     * 波形内容相同即相等（不比较名称）
+     *
+     * @param o the o
+     * @return the boolean
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ImmutablePulseWaveList other)) return false;
+        return hash == other.hash && waves.equals(other.waves);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+}
@@ -0,0 +1,133 @@
+/*******************************************************************************
+ * Copyright (c) 2024-2025 R3944Realms. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.r3944realms.dg_lab_api.message.data;
+
+/**
+ * 以单个 long 表示的波形数据（100ms）<br/>
+ * 从高位到低位依次为 f1, f2, f3, f4, s1, s2, s3, s4，每项占1字节，
+ * 因此其16位16进制表示与 {@link PulseWave#toHexString()} 相同。
+ * <code>frequency</code> 范围在10~240里，<code>strength</code> 范围在0~100里。
+ */
+public final class PackedPulseWave {
+    /**
+     * 每段波形数据的字节数
+     */
+    public static final int BYTES = 8;
+
+    private PackedPulseWave() {}
+
+    /**
+     * 打包并校验
+     *
+     * @param f1 第一个25ms的波频
+     * @param f2 第二个25ms的波频
+     * @param f3 第三个25ms的波频
+     * @param f4 第四个25ms的波频
+     * @param s1 第一个25ms的强度
+     * @param s2 第二个25ms的强度
+     * @param s3 第三个25ms的强度
+     * @param s4 第四个25ms的强度
+     * @return 打包后的波形
+     * @throws IllegalArgumentException 超出范围
+     */
+    public static long pack(int f1, int f2, int f3, int f4, int s1, int s2, int s3, int s4) {
+        return validate(packUnchecked(f1, f2, f3, f4, s1, s2, s3, s4));
+    }
+
+    /**
+     * 打包 {@link PulseWave}（其构造时已校验）
+     *
+     * @param wave the wave
+     * @return 打包后的波形
+     */
+    public static long pack(PulseWave wave) {
+        return packUnchecked(wave.f1(), wave.f2(), wave.f3(), wave.f4(), wave.s1(), wave.s2(), wave.s3(), wave.s4());
+    }
+
+    static long packUnchecked(int f1, int f2, int f3, int f4, int s1, int s2, int s3, int s4) {
+        return ((long) (f1 & 0xFF) << 56) | ((long) (f2 & 0xFF) << 48) | ((long) (f3 & 0xFF) << 40) | ((long) (f4 & 0xFF) << 32)
+                | ((long) (s1 & 0xFF) << 24) | ((s2 & 0xFF) << 16) | ((s3 & 0xFF) << 8) | (s4 & 0xFF);
+    }
+
+    /**
+     * 第 index 个25ms的波频
+     *
+     * @param packed 打包后的波形
+     * @param index  0~3
+     * @return the int
+     */
+    public static int frequency(long packed, int index) {
+        return (int) (packed >>> (56 - (index << 3))) & 0xFF;
+    }
+
+    /**
+     * 第 index 个25ms的强度
+     *
+     * @param packed 打包后的波形
+     * @param index  0~3
+     * @return the int
+     */
+    public static int strength(long packed, int index) {
+        return (int) (packed >>> (24 - (index << 3))) & 0xFF;
+    }
+
+    /**
+     * 还原为 {@link PulseWave}
+     *
+     * @param packed 打包后的波形
+     * @return the pulse wave
+     * @throws IllegalArgumentException 超出范围
+     */
+    public static PulseWave toPulseWave(long packed) {
+        return new PulseWave(
+                frequency(packed, 0), frequency(packed, 1), frequency(packed, 2), frequency(packed, 3),
+                strength(packed, 0), strength(packed, 1), strength(packed, 2), strength(packed, 3)
+        );
+    }
+
+    /**
+     * 各项是否均在有效范围内
+     *
+     * @param packed 打包后的波形
+     * @return the boolean
+     */
+    public static boolean isValid(long packed) {
+        for (int i = 0; i < 4; i++) {
+            int frequency = frequency(packed, i);
+            if (frequency < 10 || frequency > 240 || strength(packed, i) > 100) return false;
+        }
+        return true;
+    }
+
+    /**
+     * 校验
+     *
+     * @param packed 打包后的波形
+     * @return packed
+     * @throws IllegalArgumentException 超出范围
+     */
+    public static long validate(long packed) {
+        for (int i = 0; i < 4; i++) {
+            int frequency = frequency(packed, i);
+            if (frequency < 10 || frequency > 240)
+                throw new IllegalArgumentException("Frequency must be between 10 and 240");
+            if (strength(packed, i) > 100)
+                throw new IllegalArgumentException("Strength must be between 0 and 100");
+        }
+        return packed;
+    }
+}
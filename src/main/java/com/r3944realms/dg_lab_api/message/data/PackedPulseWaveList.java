@@ -0,0 +1,306 @@
+/*******************************************************************************
+ * Copyright (c) 2024-2025 R3944Realms. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.r3944realms.dg_lab_api.message.data;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongConsumer;
+
+/**
+ * 紧凑波形列表<br/>
+ * 以 long[] 存储 {@link PackedPulseWave}，每段波形8字节，不为每段创建对象。
+ */
+public class PackedPulseWaveList {
+    private static final long[] EMPTY = new long[0];
+    private String name;
+    private long[] frames;
+    private int size;
+
+    /**
+     * Instantiates a new Packed pulse wave list.
+     */
+    public PackedPulseWaveList() {
+        this(0);
+    }
+
+    /**
+     * Instantiates a new Packed pulse wave list.
+     *
+     * @param initialCapacity 初始容量
+     */
+    public PackedPulseWaveList(int initialCapacity) {
+        if (initialCapacity < 0)
+            throw new IllegalArgumentException("initialCapacity must not be negative");
+        this.name = "";
+        this.frames = initialCapacity == 0 ? EMPTY : new long[initialCapacity];
+    }
+
+    /**
+     * 由 {@link PulseWaveList} 转换
+     *
+     * @param list the list
+     * @return the packed pulse wave list
+     */
+    public static PackedPulseWaveList fromPulseWaveList(PulseWaveList list) {
+        List<PulseWave> waves = list.getList();
+        PackedPulseWaveList ret = new PackedPulseWaveList(waves.size());
+        ret.setName(list.getName());
+        for (PulseWave wave : waves) {
+            ret.frames[ret.size++] = PackedPulseWave.pack(wave);
+        }
+        return ret;
+    }
+
+    /**
+     * 由打包后的波形数组创建（会校验并复制）
+     *
+     * @param frames 打包后的波形
+     * @return the packed pulse wave list
+     * @throws IllegalArgumentException 存在超出范围的波形
+     */
+    public static PackedPulseWaveList of(long... frames) {
+        PackedPulseWaveList ret = new PackedPulseWaveList(frames.length);
+        ret.addAll(frames, 0, frames.length);
+        return ret;
+    }
+
+    /**
+     * Sets name.
+     *
+     * @param name the name
+     */
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Gets name.
+     *
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 波形段数
+     *
+     * @return the int
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Is empty boolean.
+     *
+     * @return the boolean
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * 获取第 index 段打包后的波形
+     *
+     * @param index 下标
+     * @return 打包后的波形
+     */
+    public long get(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        return frames[index];
+    }
+
+    /**
+     * 获取第 index 段波形
+     *
+     * @param index 下标
+     * @return the pulse wave
+     */
+    public PulseWave getWave(int index) {
+        return PackedPulseWave.toPulseWave(get(index));
+    }
+
+    /**
+     * 添加一段打包后的波形
+     *
+     * @param packed 打包后的波形
+     * @throws IllegalArgumentException 超出范围
+     */
+    public void add(long packed) {
+        PackedPulseWave.validate(packed);
+        ensureCapacity(size + 1);
+        frames[size++] = packed;
+    }
+
+    /**
+     * 添加一段波形
+     *
+     * @param wave the wave
+     */
+    public void add(PulseWave wave) {
+        ensureCapacity(size + 1);
+        frames[size++] = PackedPulseWave.pack(wave);
+    }
+
+    /**
+     * 批量添加打包后的波形
+     *
+     * @param packed 打包后的波形
+     * @param offset 起始位置
+     * @param length 数量
+     * @throws IllegalArgumentException 存在超出范围的波形（此时不添加任何波形）
+     */
+    public void addAll(long[] packed, int offset, int length) {
+        for (int i = offset, end = offset + length; i < end; i++) {
+            PackedPulseWave.validate(packed[i]);
+        }
+        ensureCapacity(size + length);
+        System.arraycopy(packed, offset, frames, size, length);
+        size += length;
+    }
+
+    /**
+     * 批量添加
+     *
+     * @param other the other
+     */
+    public void addAll(PackedPulseWaveList other) {
+        ensureCapacity(size + other.size);
+        System.arraycopy(other.frames, 0, frames, size, other.size);
+        size += other.size;
+    }
+
+    /**
+     * 批量添加
+     *
+     * @param list the list
+     */
+    public void addAll(PulseWaveList list) {
+        List<PulseWave> waves = list.getList();
+        ensureCapacity(size + waves.size());
+        for (PulseWave wave : waves) {
+            frames[size++] = PackedPulseWave.pack(wave);
+        }
+    }
+
+    /**
+     * Clear.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * 确保容量
+     *
+     * @param capacity 最小容量
+     */
+    public void ensureCapacity(int capacity) {
+        if (capacity > frames.length) {
+            frames = Arrays.copyOf(frames, Math.max(capacity, Math.max(8, frames.length + (frames.length >> 1))));
+        }
+    }
+
+    /**
+     * 按顺序遍历每段打包后的波形，不创建迭代器或波形对象
+     *
+     * @param action the action
+     */
+    public void forEach(LongConsumer action) {
+        long[] frames = this.frames;
+        for (int i = 0, n = size; i < n; i++) {
+            action.accept(frames[i]);
+        }
+    }
+
+    /**
+     * 复制为数组
+     *
+     * @return 打包后的波形
+     */
+    public long[] toArray() {
+        return Arrays.copyOf(frames, size);
+    }
+
+    /**
+     * 将 [from, to) 区间复制到目标数组
+     *
+     * @param from   起始下标
+     * @param to     结束下标（不含）
+     * @param dest   目标数组
+     * @param offset 目标起始位置
+     */
+    public void copyTo(int from, int to, long[] dest, int offset) {
+        if (from < 0 || to > size || from > to)
+            throw new IndexOutOfBoundsException("Range: [" + from + ", " + to + "), Size: " + size);
+        System.arraycopy(frames, from, dest, offset, to - from);
+    }
+
+    /**
+     * 转换为 {@link PulseWaveList}
+     *
+     * @return the pulse wave list
+     */
+    public PulseWaveList toPulseWaveList() {
+        return toPulseWaveList(0, size);
+    }
+
+    /**
+     * 将 [from, to) 区间转换为 {@link PulseWaveList}
+     *
+     * @param from 起始下标
+     * @param to   结束下标（不含）
+     * @return the pulse wave list
+     */
+    public PulseWaveList toPulseWaveList(int from, int to) {
+        if (from < 0 || to > size || from > to)
+            throw new IndexOutOfBoundsException("Range: [" + from + ", " + to + "), Size: " + size);
+        PulseWaveList ret = new PulseWaveList();
+        ret.setName(name);
+        for (int i = from; i < to; i++) {
+            ret.add(PackedPulseWave.toPulseWave(frames[i]));
+        }
+        return ret;
+    }
+
+    /**
+     * 转换为发送格式的字符串，如 ["0A0A0A0A00000000","0A0A0A0A0A0A0A0A"]
+     *
+     * @return the string
+     */
+    public String toListString() {
+        if (size == 0) return "[]";
+        char[] chars = new char[size * (HexCodec.FRAME_LENGTH + 3) + 1];
+        int pos = 0;
+        for (int i = 0; i < size; i++) {
+            chars[pos++] = i == 0 ? '[' : ',';
+            chars[pos++] = '"';
+            HexCodec.encode(frames[i], chars, pos);
+            pos += HexCodec.FRAME_LENGTH;
+            chars[pos++] = '"';
+        }
+        chars[pos] = ']';
+        return new String(chars);
+    }
+
+    @Override
+    public String toString() {
+        return "PackedPulseWaveList{name='" + name + "', size=" + size + "}";
+    }
+}
@@ -101,16 +101,31 @@ public record PulseWave(int f1, int f2, int f3, int f4, int s1, int s2, int s3,
      * @return PulseWave pulse wave
      */
     public static PulseWave fromHex(String hex) {
-        if (hex == null || !hex.toUpperCase().matches("^([0-9A-F]{2}){8}$")) {
+        if (hex == null || hex.length() != HexCodec.FRAME_LENGTH) {
             throw new IllegalArgumentException("Invalid hex string");
         }
+        return fromPacked(HexCodec.decode(hex, 0));
+    }
 
-        // 解析前8字节为频率（f1-f4）
-        int[] frequencies = parseHexChunk(hex.substring(0, 8), "frequency");
-        int[] strengths = parseHexChunk(hex.substring(8, 16), "strength");
+    /**
+     * 由打包后的波形还原
+     *
+     * @param packed 见 {@link PackedPulseWave}
+     * @return the pulse wave
+     */
+    public static PulseWave fromPacked(long packed) {
+        return PackedPulseWave.toPulseWave(packed);
+    }
 
-        return PulseWave.fromArrays(frequencies, strengths);
+    /**
+     * 打包为单个 long
+     *
+     * @return 见 {@link PackedPulseWave}
+     */
+    public long toPacked() {
+        return PackedPulseWave.pack(this);
     }
+
     @Override
     public String toString() {
         return PulseWaveListGenerator.gson.toJson(this); // Serialize to JSON string
@@ -132,20 +147,7 @@ public record PulseWave(int f1, int f2, int f3, int f4, int s1, int s2, int s3,
      * @return the string
      */
     public String toHexString() {
-        return String.format("%02X%02X%02X%02X%02X%02X%02X%02X", f1, f2, f3, f4, s1, s2, s3, s4);
-    }
-    private static int[] parseHexChunk(String hex, String type) {
-        int[] values = new int[4];
-        for (int i = 0; i < 4; i++) {
-            String byteStr = hex.substring(i * 2, (i + 1) * 2);
-            int value = Integer.parseInt(byteStr, 16);
-
-            if ("frequency".equals(type)) validateFrequency(value);
-            else if ("strength".equals(type)) validateStrength(value);
-
-            values[i] = value;
-        }
-        return values;
+        return HexCodec.toHexString(toPacked());
     }
     private static int validateFrequency(int frequency) throws InvalidParameterException{
         if (frequency < 10 || frequency > 240)
@@ -0,0 +1,177 @@
+/*******************************************************************************
+ * Copyright (c) 2024-2025 R3944Realms. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.r3944realms.dg_lab_api.message.data;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+/**
+ * 生成波形的缓存<br/>
+ * 以 (生成器, 频率, 最小/最大强度, 时长) 为键，按波形段数计算容量，
+ * 超出容量时淘汰最近最少使用的项；返回的 {@link ImmutablePulseWaveList} 为共享实例。
+ */
+public class PulseWaveCache {
+    /**
+     * 默认容量（波形段数），约 100 段 * 1000 个波形
+     */
+    public static final long DEFAULT_MAX_FRAMES = 100_000;
+
+    private final LoadingCache<Key, ImmutablePulseWaveList> cache;
+
+    /**
+     * Instantiates a new Pulse wave cache.
+     */
+    public PulseWaveCache() {
+        this(DEFAULT_MAX_FRAMES);
+    }
+
+    /**
+     * Instantiates a new Pulse wave cache.
+     *
+     * @param maxFrames 最多缓存的波形段数
+     */
+    public PulseWaveCache(long maxFrames) {
+        this.cache = CacheBuilder.newBuilder()
+                .maximumWeight(maxFrames)
+                .weigher((Key key, ImmutablePulseWaveList value) -> Math.max(1, value.size()))
+                .recordStats()
+                .build(CacheLoader.from(Key::generate));
+    }
+
+    /**
+     * 获取正弦波，见 {@link PulseWaveListGenerator#sinPulse(int, int, int, int)}
+     *
+     * @param frequency   波的频率
+     * @param minStrength 波的最小强度
+     * @param maxStrength 波的最大强度
+     * @param duration    波的时长
+     * @return 共享的波形
+     * @throws IllegalArgumentException 不符合条件的输入
+     */
+    public ImmutablePulseWaveList sinPulse(int frequency, int minStrength, int maxStrength, int duration) {
+        return get(new Key(Generator.SIN, frequency, minStrength, maxStrength, duration));
+    }
+
+    /**
+     * 获取梯度的波，见 {@link PulseWaveListGenerator#gradientPulse(int, int, int, int)}
+     *
+     * @param frequency     波的频率
+     * @param startStrength 起始强度
+     * @param endStrength   最终强度
+     * @param duration      波的时长
+     * @return 共享的波形
+     * @throws IllegalArgumentException 不符合条件的输入
+     */
+    public ImmutablePulseWaveList gradientPulse(int frequency, int startStrength, int endStrength, int duration) {
+        return get(new Key(Generator.GRADIENT, frequency, startStrength, endStrength, duration));
+    }
+
+    /**
+     * 获取平滑的波，见 {@link PulseWaveListGenerator#smoothPulse(int, int, int)}
+     *
+     * @param frequency 波的频率
+     * @param strength  波的强度
+     * @param duration  波的时长
+     * @return 共享的波形
+     * @throws IllegalArgumentException 不符合条件的输入
+     */
+    public ImmutablePulseWaveList smoothPulse(int frequency, int strength, int duration) {
+        return get(new Key(Generator.SMOOTH, frequency, strength, strength, duration));
+    }
+
+    /**
+     * 获取缓存的波形，不存在时生成
+     *
+     * @param key the key
+     * @return 共享的波形
+     * @throws IllegalArgumentException 不符合条件的输入
+     */
+    public ImmutablePulseWaveList get(Key key) {
+        try {
+            return cache.getUnchecked(key);
+        } catch (UncheckedExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+    }
+
+    /**
+     * 命中、未命中、淘汰等统计
+     *
+     * @return the cache stats
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    /**
+     * 当前缓存的波形数
+     *
+     * @return the long
+     */
+    public long size() {
+        return cache.size();
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * 波形生成器
+     */
+    public enum Generator {
+        /**
+         * 正弦波
+         */
+        SIN,
+        /**
+         * 梯度的波
+         */
+        GRADIENT,
+        /**
+         * 平滑的波
+         */
+        SMOOTH
+    }
+
+    /**
+     * 缓存键，平滑的波的 minStrength 与 maxStrength 相同
+     *
+     * @param generator   生成器
+     * @param frequency   波的频率
+     * @param minStrength 最小（起始）强度
+     * @param maxStrength 最大（最终）强度
+     * @param duration    波的时长
+     */
+    public record Key(Generator generator, int frequency, int minStrength, int maxStrength, int duration) {
+        private ImmutablePulseWaveList generate() {
+            PulseWaveList list = switch (generator) {
+                case SIN -> PulseWaveListGenerator.sinPulse(frequency, minStrength, maxStrength, duration);
+                case GRADIENT -> PulseWaveListGenerator.gradientPulse(frequency, minStrength, maxStrength, duration);
+                case SMOOTH -> PulseWaveListGenerator.smoothPulse(frequency, minStrength, duration);
+            };
+            return ImmutablePulseWaveList.copyOf(list);
+        }
+    }
+}
@@ -36,6 +36,17 @@ public class PulseWaveList {
         list = new ArrayList<>();
     }
 
+    /**
+     * 由子类提供底层列表
+     *
+     * @param name the name
+     * @param list the list
+     */
+    PulseWaveList(String name, List<PulseWave> list) {
+        this.name = name;
+        this.list = list;
+    }
+
     /**
      * Sets name.
      *
@@ -79,21 +90,37 @@ public class PulseWaveList {
         return ImmutableList.copyOf(list);
     }
 
+    /**
+     * 冻结为不可变波形列表，其发送格式字符串等只计算一次，可在多次发送间复用
+     *
+     * @return the immutable pulse wave list
+     */
+    public ImmutablePulseWaveList freeze() {
+        return ImmutablePulseWaveList.copyOf(this);
+    }
+
     /**
      * To list string.
      *
      * @return the string
      */
     public String toListString() {
-        StringBuilder sb = new StringBuilder();
-        sb.append("[");
-        for (int i = 0; i <= list.size() -1; i++) {
-            sb.append("\"").append(list.get(i).toHexString()).append("\"");
-            if(i != list.size() - 1) sb.append(",");
+        int size = list.size();
+        if (size == 0) return "[]";
+        // ["XXXXXXXXXXXXXXXX","XXXXXXXXXXXXXXXX"]
+        char[] chars = new char[size * (HexCodec.FRAME_LENGTH + 3) + 1];
+        int pos = 0;
+        for (int i = 0; i < size; i++) {
+            chars[pos++] = i == 0 ? '[' : ',';
+            chars[pos++] = '"';
+            HexCodec.encode(list.get(i).toPacked(), chars, pos);
+            pos += HexCodec.FRAME_LENGTH;
+            chars[pos++] = '"';
         }
-        sb.append("]");
-        return sb.toString();
+        chars[pos] = ']';
+        return new String(chars);
     }
+
     @Override
     public String toString() {
         return "PulseWaveList{name='" + name + "', list=" + list + "}";
@@ -36,8 +36,60 @@ public class PulseWaveListGenerator {
             .setPrettyPrinting()
             .create();
 
+    private static final PulseWaveCache CACHE = new PulseWaveCache();
+
     private PulseWaveListGenerator() {}
 
+    /**
+     * 共享的生成波形缓存，可用于查看命中、未命中与淘汰统计
+     *
+     * @return the pulse wave cache
+     */
+    public static PulseWaveCache cache() {
+        return CACHE;
+    }
+
+    /**
+     * 带缓存的 {@link #sinPulse(int, int, int, int)}，返回共享的不可变波形
+     *
+     * @param frequency   波的频率
+     * @param minStrength 波的最小强度
+     * @param maxStrength 波的最大强度
+     * @param duration    波的时长
+     * @return 生成的正弦的波
+     * @throws IllegalArgumentException 不符合条件的输入
+     */
+    public static ImmutablePulseWaveList cachedSinPulse(int frequency, int minStrength, int maxStrength, int duration) {
+        return CACHE.sinPulse(frequency, minStrength, maxStrength, duration);
+    }
+
+    /**
+     * 带缓存的 {@link #gradientPulse(int, int, int, int)}，返回共享的不可变波形
+     *
+     * @param frequency     波的频率
+     * @param startStrength 起始强度
+     * @param endStrength   最终强度
+     * @param duration      波的时长
+     * @return 生成的梯度的波
+     * @throws IllegalArgumentException 不符合条件的输入
+     */
+    public static ImmutablePulseWaveList cachedGradientPulse(int frequency, int startStrength, int endStrength, int duration) {
+        return CACHE.gradientPulse(frequency, startStrength, endStrength, duration);
+    }
+
+    /**
+     * 带缓存的 {@link #smoothPulse(int, int, int)}，返回共享的不可变波形
+     *
+     * @param frequency 波的频率
+     * @param strength  波的强度
+     * @param duration  波的时长
+     * @return 生成的平滑的波
+     * @throws IllegalArgumentException 不符合条件的输入
+     */
+    public static ImmutablePulseWaveList cachedSmoothPulse(int frequency, int strength, int duration) {
+        return CACHE.smoothPulse(frequency, strength, duration);
+    }
+
     /**
      * To pulse wave list from string array pulse wave list.
      *
@@ -47,17 +99,9 @@ public class PulseWaveListGenerator {
     public static PulseWaveList toPulseWaveListFromStringArray(String[] waveStringList) {
         PulseWaveList ret = new PulseWaveList();
         for (String s : waveStringList) {
-            int v1, v2, v3, v4, v5, v6, v7, v8;
-            int i = 0;
-            v1 = Integer.parseInt(s.substring(i, 2 + i++), 16);
-            v2 = Integer.parseInt(s.substring(++i, 2 + i++), 16);
-            v3 = Integer.parseInt(s.substring(++i, 2 + i++), 16);
-            v4 = Integer.parseInt(s.substring(++i, 2 + i++), 16);
-            v5 = Integer.parseInt(s.substring(++i, 2 + i++), 16);
-            v6 = Integer.parseInt(s.substring(++i, 2 + i++), 16);
-            v7 = Integer.parseInt(s.substring(++i, 2 + i++), 16);
-            v8 = Integer.parseInt(s.substring(++i, 2 + i), 16);
-            ret.add(new PulseWave(v1, v2, v3, v4, v5, v6, v7, v8));
+            if (s.length() != HexCodec.FRAME_LENGTH)
+                throw new IllegalArgumentException("Invalid hex string");
+            ret.add(PulseWave.fromPacked(HexCodec.decode(s, 0)));
         }
         return ret;
     }
@@ -0,0 +1,223 @@
+/*******************************************************************************
+ * Copyright (c) 2024-2025 R3944Realms. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.r3944realms.dg_lab_api.message.data;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.r3944realms.dg_lab_api.message.IPowerBoxMsg;
+import com.r3944realms.dg_lab_api.message.argType.Channel;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 按内容去重的波形库<br/>
+ * 以打包后的波形帧（见 {@link PackedPulseWave}）为键，相同内容的波形只保留一份规范的 {@link ImmutablePulseWaveList}，
+ * 各会话拿到的都是同一实例的引用，因此其缓存的发送格式（见 {@link ImmutablePulseWaveList#toCommand(Channel)}、
+ * {@link ImmutablePulseWaveList#writeCommandJson(java.nio.ByteBuffer, Channel, boolean)}）也只编码一次。
+ * 规范副本中相同的波形帧共享同一个 {@link PulseWave} 对象。<br/>
+ * 名称不参与比较，规范副本保留首次存入时的名称。规范副本以弱引用保存，不再被使用时自动移除。线程安全。
+ */
+public class WaveformStore {
+    /**
+     * 每个重复波形帧省下的估计内存（字节）：{@link PulseWave} 对象、列表引用，
+     * 以及 {@link ImmutablePulseWaveList} 缓存的字符串、UTF-8字节和两个通道的指令中的约 4 * 19 字节文本
+     */
+    public static final long ESTIMATED_BYTES_PER_FRAME = 128;
+
+    private final Cache<Key, ImmutablePulseWaveList> canonical;
+    private final Interner<PulseWave> frames = Interners.newWeakInterner();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder requestedFrames = new LongAdder();
+    private final LongAdder stores = new LongAdder();
+    private final LongAdder storedFrames = new LongAdder();
+    private final LongAdder liveFrames = new LongAdder();
+
+    /**
+     * Instantiates a new Waveform store.
+     */
+    public WaveformStore() {
+        this.canonical = CacheBuilder.newBuilder()
+                .weakValues()
+                .<Key, ImmutablePulseWaveList>removalListener(notification -> liveFrames.add(-notification.getKey().frames.length))
+                .build();
+    }
+
+    /**
+     * 取得与给定波形内容相同的规范副本
+     *
+     * @param list the list
+     * @return 共享的波形
+     */
+    public ImmutablePulseWaveList intern(PulseWaveList list) {
+        List<PulseWave> waves = list.getList();
+        long[] packed = new long[waves.size()];
+        for (int i = 0; i < packed.length; i++) packed[i] = waves.get(i).toPacked();
+        return intern(packed, list.getName());
+    }
+
+    /**
+     * 取得与给定波形内容相同的规范副本
+     *
+     * @param list the list
+     * @return 共享的波形
+     */
+    public ImmutablePulseWaveList intern(PackedPulseWaveList list) {
+        return intern(list.toArray(), list.getName());
+    }
+
+    /**
+     * 取得与给定波形内容相同的规范副本
+     *
+     * @param frames 打包后的波形帧
+     * @param offset 起始下标
+     * @param length 帧数
+     * @return 共享的波形
+     * @throws IllegalArgumentException 存在不合法的波形帧
+     */
+    public ImmutablePulseWaveList intern(long[] frames, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, frames.length);
+        long[] packed = Arrays.copyOfRange(frames, offset, offset + length);
+        for (long frame : packed) PackedPulseWave.validate(frame);
+        return intern(packed, "");
+    }
+
+    /**
+     * 使用规范副本创建波形消息
+     *
+     * @param channel 通道
+     * @param list    波形
+     * @param timer   the timer
+     * @return the pulse
+     */
+    public IPowerBoxMsg.Pulse pulse(Channel channel, PulseWaveList list, @Nullable Integer timer) {
+        return new IPowerBoxMsg.Pulse(channel, intern(list), timer);
+    }
+
+    private ImmutablePulseWaveList intern(long[] packed, String name) {
+        requests.increment();
+        requestedFrames.add(packed.length);
+        Key key = new Key(packed);
+        try {
+            return canonical.get(key, () -> {
+                PulseWaveList list = new PulseWaveList();
+                list.setName(name);
+                for (long frame : packed) list.add(frames.intern(PulseWave.fromPacked(frame)));
+                stores.increment();
+                storedFrames.add(packed.length);
+                liveFrames.add(packed.length);
+                return ImmutablePulseWaveList.copyOf(list);
+            });
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * 当前保存的规范副本数量（近似值，包含尚未清理的已回收项）
+     *
+     * @return the long
+     */
+    public long size() {
+        return canonical.size();
+    }
+
+    /**
+     * 清空
+     */
+    public void invalidateAll() {
+        canonical.invalidateAll();
+    }
+
+    /**
+     * 统计快照
+     *
+     * @return the stats
+     */
+    public Stats stats() {
+        canonical.cleanUp();
+        return new Stats(requests.sum(), stores.sum(), requestedFrames.sum(), storedFrames.sum(), liveFrames.sum());
+    }
+
+    /**
+     * 去重统计（累计值）
+     *
+     * @param requests        存入请求数
+     * @param stores          新建规范副本数
+     * @param requestedFrames 请求的波形帧总数
+     * @param storedFrames    新建规范副本的波形帧总数
+     * @param liveFrames      当前保存的规范副本的波形帧总数
+     */
+    public record Stats(long requests, long stores, long requestedFrames, long storedFrames, long liveFrames) {
+        /**
+         * 命中已有规范副本的请求数
+         *
+         * @return the long
+         */
+        public long hits() {
+            return requests - stores;
+        }
+
+        /**
+         * 去重比：请求的波形帧数 / 实际保存的波形帧数，1 表示没有重复
+         *
+         * @return the double
+         */
+        public double dedupRatio() {
+            return storedFrames == 0 ? 1 : (double) requestedFrames / storedFrames;
+        }
+
+        /**
+         * 累计避免分配的估计字节数：每次命中少建的副本按 {@link #ESTIMATED_BYTES_PER_FRAME} 计，
+         * 只增不减，不代表当前节省的内存（规范副本被回收后也不会减少）
+         *
+         * @return the long
+         */
+        public long avoidedBytes() {
+            return (requestedFrames - storedFrames) * ESTIMATED_BYTES_PER_FRAME;
+        }
+    }
+
+    private static final class Key {
+        private final long[] frames;
+        private final int hash;
+
+        private Key(long[] frames) {
+            this.frames = frames;
+            this.hash = Arrays.hashCode(frames);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            return o instanceof Key other && hash == other.hash && Arrays.equals(frames, other.frames);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,306 @@
+/*******************************************************************************
+ * Copyright (c) 2024-2025 R3944Realms. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.r3944realms.dg_lab_api.metrics;
+
+import com.r3944realms.dg_lab_api.operation.ServerHandler;
+import com.r3944realms.dg_lab_api.operation.ServerOperation;
+import com.r3944realms.dg_lab_api.websocket.message.PowerBoxMessage;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * 为 {@link ServerOperation} 附加统计的装饰器：每次回调计数消息并记录处理耗时，处理方法抛出的异常照常向上传播
+ */
+public class InstrumentedServerOperation implements ServerOperation {
+    private final ServerOperation delegate;
+    private final PowerBoxMetrics metrics;
+
+    /**
+     * Instantiates a new Instrumented server operation.
+     *
+     * @param delegate 被装饰的操作
+     * @param metrics  统计
+     */
+    public InstrumentedServerOperation(ServerOperation delegate, PowerBoxMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Gets delegate.
+     *
+     * @return the delegate
+     */
+    public ServerOperation getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * Gets metrics.
+     *
+     * @return the metrics
+     */
+    public PowerBoxMetrics getMetrics() {
+        return metrics;
+    }
+
+    private void done(ServerHandler handler, long start, boolean completed) {
+        metrics.recordLatency(handler, System.nanoTime() - start);
+        if (!completed) metrics.recordFailure(handler);
+    }
+
+    @Override
+    public void ServerStartingHandler() {
+        long start = System.nanoTime();
+        boolean completed = false;
+        try {
+            delegate.ServerStartingHandler();
+            completed = true;
+        } finally {
+            done(ServerHandler.SERVER_STARTING, start, completed);
+        }
+    }
+
+    @Override
+    public void ServerStartingErrorHandler() {
+        long start = System.nanoTime();
+        boolean completed = false;
+        try {
+            delegate.ServerStartingErrorHandler();
+            completed = true;
+        } finally {
+            done(ServerHandler.SERVER_STARTING_ERROR, start, completed);
+        }
+    }
+
+    @Override
+    public void ServerStartedHandler() {
+        long start = System.nanoTime();
+        boolean completed = false;
+        try {
+            delegate.ServerStartedHandler();
+            completed = true;
+        } finally {
+            done(ServerHandler.SERVER_STARTED, start, completed);
+        }
+    }
+
+    @Override
+    public void ServerStoppingHandler() {
+        long start = System.nanoTime();
+        boolean completed = false;
+        try {
+            delegate.ServerStoppingHandler();
+            completed = true;
+        } finally {
+            done(ServerHandler.SERVER_STOPPING, start, completed);
+        }
+    }
+
+    @Override
+    public void ServerStoppingErrorHandler() {
+        long start = System.nanoTime();
+        boolean completed = false;
+        try {
+            delegate.ServerStoppingErrorHandler();
+            completed = true;
+        } finally {
+            done(ServerHandler.SERVER_STOPPING_ERROR, start, completed);
+        }
+    }
+
+    @Override
+    public void ServerStoppedHandler() {
+        long start = System.nanoTime();
+        boolean completed = false;
+        try {
+            delegate.ServerStoppedHandler();
+            completed = true;
+        } finally {
+            done(ServerHandler.SERVER_STOPPED, start, completed);
+        }
+    }
+
+    @Override
+    public void InactiveConnectionRemoveHandler(String clientId) {
+        long start = System.nanoTime();
+        boolean completed = false;
+        try {
+            delegate.InactiveConnectionRemoveHandler(clientId);
+            completed = true;
+        } finally {
+            done(ServerHandler.INACTIVE_CONNECTION_REMOVE, start, completed);
+        }
+    }
+
+    @Override
+    public void ErrorMessageHandler(PowerBoxMessage message) {
+        metrics.recordMessage(message);
+        long start = System.nanoTime();
+        boolean completed = false;
+        try {
+            delegate.ErrorMessageHandler(message);
+            completed = true;
+        } finally {
+            done(ServerHandler.ERROR_MESSAGE, start, completed);
+        }
+    }
+
+    @Override
+    public void BindSuccessMessageHandler(PowerBoxMessage message) {
+        metrics.recordMessage(message);
+        long start = System.nanoTime();
+        boolean completed = false;
+        try {
+            delegate.BindSuccessMessageHandler(message);
+            completed = true;
+        } finally {
+            done(ServerHandler.BIND_SUCCESS, start, completed);
+        }
+    }
+
+    @Override
+    public void BindFailureMessageHandler(PowerBoxMessage message) {
+        metrics.recordMessage(message);
+        long start = System.nanoTime();
+        boolean completed = false;
+        try {
+            delegate.BindFailureMessageHandler(message);
+            completed = true;
+        } finally {
+            done(ServerHandler.BIND_FAILURE, start, completed);
+        }
+    }
+
+    @Override
+    public void HeartbeatMessageHandler(PowerBoxMessage message) {
+        metrics.recordMessage(message);
+        long start = System.nanoTime();
+        boolean completed = false;
+        try {
+            delegate.HeartbeatMessageHandler(message);
+            completed = true;
+        } finally {
+            done(ServerHandler.HEARTBEAT, start, completed);
+        }
+    }
+
+    @Override
+    public void ClearMessageHandler(PowerBoxMessage message) {
+        metrics.recordMessage(message);
+        long start = System.nanoTime();
+        boolean completed = false;
+        try {
+            delegate.ClearMessageHandler(message);
+            completed = true;
+        } finally {
+            done(ServerHandler.CLEAR, start, completed);
+        }
+    }
+
+    @Override
+    public void FeedbackMessageHandler(PowerBoxMessage message) {
+        metrics.recordMessage(message);
+        long start = System.nanoTime();
+        boolean completed = false;
+        try {
+            delegate.FeedbackMessageHandler(message);
+            completed = true;
+        } finally {
+            done(ServerHandler.FEEDBACK, start, completed);
+        }
+    }
+
+    @Override
+    public void StrengthMessageNoticeMessage(PowerBoxMessage message) {
+        metrics.recordMessage(message);
+        long start = System.nanoTime();
+        boolean completed = false;
+        try {
+            delegate.StrengthMessageNoticeMessage(message);
+            completed = true;
+        } finally {
+            done(ServerHandler.STRENGTH_NOTICE, start, completed);
+        }
+    }
+
+    @Override
+    public void StrengthMessageChangeHandler(PowerBoxMessage message) {
+        metrics.recordMessage(message);
+        long start = System.nanoTime();
+        boolean completed = false;
+        try {
+            delegate.StrengthMessageChangeHandler(message);
+            completed = true;
+        } finally {
+            done(ServerHandler.STRENGTH_CHANGE, start, completed);
+        }
+    }
+
+    @Override
+    public void BreakConnectMessageHandler(PowerBoxMessage message) {
+        metrics.recordMessage(message);
+        long start = System.nanoTime();
+        boolean completed = false;
+        try {
+            delegate.BreakConnectMessageHandler(message);
+            completed = true;
+        } finally {
+            done(ServerHandler.BREAK_CONNECT, start, completed);
+        }
+    }
+
+    @Override
+    public void OtherMessageHandler(PowerBoxMessage message) {
+        metrics.recordMessage(message);
+        long start = System.nanoTime();
+        boolean completed = false;
+        try {
+            delegate.OtherMessageHandler(message);
+            completed = true;
+        } finally {
+            done(ServerHandler.OTHER, start, completed);
+        }
+    }
+
+    @Override
+    public void PulseClientMessageHandler(PowerBoxMessage clearMessage, PowerBoxMessage pulseMessage) {
+        metrics.recordMessage(clearMessage);
+        metrics.recordMessage(pulseMessage);
+        long start = System.nanoTime();
+        boolean completed = false;
+        try {
+            delegate.PulseClientMessageHandler(clearMessage, pulseMessage);
+            completed = true;
+        } finally {
+            done(ServerHandler.PULSE_CLIENT, start, completed);
+        }
+    }
+
+    @Override
+    public void PulseClientMessageHandler(@Nullable PowerBoxMessage clearMessage, int delayTime, PowerBoxMessage pulseMessage) {
+        metrics.recordMessage(clearMessage);
+        metrics.recordMessage(pulseMessage);
+        long start = System.nanoTime();
+        boolean completed = false;
+        try {
+            delegate.PulseClientMessageHandler(clearMessage, delayTime, pulseMessage);
+            completed = true;
+        } finally {
+            done(ServerHandler.PULSE_CLIENT, start, completed);
+        }
+    }
+}
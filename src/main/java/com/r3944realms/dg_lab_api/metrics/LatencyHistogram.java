@@ -0,0 +1,160 @@
+/*******************************************************************************
+ * Copyright (c) 2024-2025 R3944Realms. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.r3944realms.dg_lab_api.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 固定内存的延迟直方图（HDR 风格的对数-线性分桶）<br/>
+ * 每个2的幂区间分为16个子桶，相对误差不超过约 6%，可记录 0 ~ 2^41 纳秒（约36分钟），超出部分计入最后一个桶。
+ * 记录为无锁操作，适合在生产环境常开。
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int HALF = SUB_BUCKETS >> 1;
+    private static final int MAX_SHIFT = 36;
+    private static final int BUCKETS = SUB_BUCKETS + MAX_SHIFT * HALF;
+    private static final long MAX_VALUE = bucketUpperBound(BUCKETS - 1);
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * 记录一次耗时
+     *
+     * @param nanos 纳秒，负数按0计
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(bucketIndex(Math.min(value, MAX_VALUE)));
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * 当前快照
+     *
+     * @return the snapshot
+     */
+    public Snapshot snapshot() {
+        long[] buckets = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = counts.get(i);
+            total += buckets[i];
+        }
+        return new Snapshot(total, sum.sum(), max.get(), buckets);
+    }
+
+    /**
+     * 清零
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) counts.set(i, 0);
+        sum.reset();
+        max.reset();
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS) return (int) value;
+        int shift = 63 - Long.numberOfLeadingZeros(value) - (SUB_BUCKET_BITS - 1);
+        int top = (int) (value >>> shift);
+        return SUB_BUCKETS + (shift - 1) * HALF + (top - HALF);
+    }
+
+    static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKETS) return index;
+        int k = index - SUB_BUCKETS;
+        int shift = k / HALF + 1;
+        long top = k % HALF + HALF;
+        return ((top + 1) << shift) - 1;
+    }
+
+    /**
+     * 直方图快照
+     */
+    public static final class Snapshot {
+        private final long count;
+        private final long sum;
+        private final long max;
+        private final long[] buckets;
+
+        private Snapshot(long count, long sum, long max, long[] buckets) {
+            this.count = count;
+            this.sum = sum;
+            this.max = max;
+            this.buckets = buckets;
+        }
+
+        /**
+         * 记录次数
+         *
+         * @return the long
+         */
+        public long count() {
+            return count;
+        }
+
+        /**
+         * 总耗时（纳秒）
+         *
+         * @return the long
+         */
+        public long sum() {
+            return sum;
+        }
+
+        /**
+         * 最大耗时（纳秒）
+         *
+         * @return the long
+         */
+        public long max() {
+            return max;
+        }
+
+        /**
+         * 平均耗时（纳秒）
+         *
+         * @return the double
+         */
+        public double mean() {
+            return count == 0 ? 0 : (double) sum / count;
+        }
+
+        /**
+         * 分位数（所在桶的上界，不超过最大值）
+         *
+         * @param quantile 0~1
+         * @return 纳秒
+         */
+        public long percentile(double quantile) {
+            if (count == 0) return 0;
+            long rank = Math.max(1, (long) Math.ceil(quantile * count));
+            long seen = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                seen += buckets[i];
+                if (seen >= rank) return Math.min(bucketUpperBound(i), max);
+            }
+            return max;
+        }
+    }
+}
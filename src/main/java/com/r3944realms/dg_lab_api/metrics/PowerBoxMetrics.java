@@ -0,0 +1,205 @@
+/*******************************************************************************
+ * Copyright (c) 2024-2025 R3944Realms. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.r3944realms.dg_lab_api.metrics;
+
+import com.r3944realms.dg_lab_api.operation.PowerBoxDispatcher;
+import com.r3944realms.dg_lab_api.operation.ServerHandler;
+import com.r3944realms.dg_lab_api.websocket.message.PowerBoxMessage;
+import com.r3944realms.dg_lab_api.websocket.message.data.PowerBoxData;
+import com.r3944realms.dg_lab_api.websocket.message.data.type.PowerBoxDataType;
+import com.r3944realms.dg_lab_api.websocket.message.data.type.PowerBoxStatusCode;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 分发路径的统计：按 {@link PowerBoxDataType} 与 {@link PowerBoxStatusCode} 计数，按 {@link ServerHandler} 记录延迟直方图<br/>
+ * 计数器与直方图均以枚举序号索引，内存固定、记录无锁；通过 {@link #snapshot()} 拉取。
+ */
+public final class PowerBoxMetrics {
+    private static final PowerBoxDataType[] DATA_TYPES = PowerBoxDataType.values();
+    private static final PowerBoxStatusCode[] STATUS_CODES = PowerBoxStatusCode.values();
+    private static final ServerHandler[] HANDLERS = ServerHandler.values();
+
+    private final LongAdder[] messages = adders(DATA_TYPES.length);
+    private final LongAdder[] statusCodes = adders(STATUS_CODES.length);
+    private final LongAdder[] failures = adders(HANDLERS.length);
+    private final LatencyHistogram[] latencies = new LatencyHistogram[HANDLERS.length];
+
+    /**
+     * Instantiates a new Power box metrics.
+     */
+    public PowerBoxMetrics() {
+        for (int i = 0; i < latencies.length; i++) latencies[i] = new LatencyHistogram();
+    }
+
+    private static LongAdder[] adders(int length) {
+        LongAdder[] adders = new LongAdder[length];
+        for (int i = 0; i < length; i++) adders[i] = new LongAdder();
+        return adders;
+    }
+
+    /**
+     * 统计一条消息：按命令类型（见 {@link PowerBoxDispatcher#commandType(PowerBoxMessage)}，clientMsg 波形计为 PULSE）计数，若为 _NC_ 类消息且携带合法状态码则同时按状态码计数
+     *
+     * @param message the message
+     */
+    public void recordMessage(@Nullable PowerBoxMessage message) {
+        if (message == null) return;
+        PowerBoxDataType type = PowerBoxDispatcher.commandType(message);
+        messages[type.ordinal()].increment();
+        switch (type) {
+            case _NC_HEARTBEAT_, _NC_BIND_, _NC_BREAK_, _NC_ERROR_ -> {
+                PowerBoxData payload = message.getPayload();
+                String code = payload == null ? null : payload.getMessage();
+                if (code != null) recordStatus(PowerBoxStatusCode.getStatusCode(code));
+            }
+            default -> {}
+        }
+    }
+
+    /**
+     * 按命令类型计数
+     *
+     * @param type the type
+     */
+    public void recordMessage(PowerBoxDataType type) {
+        messages[type.ordinal()].increment();
+    }
+
+    /**
+     * 按状态码计数，{@link PowerBoxStatusCode#INVALID_STATUS_CODE} 不计
+     *
+     * @param code the code
+     */
+    public void recordStatus(PowerBoxStatusCode code) {
+        if (code != PowerBoxStatusCode.INVALID_STATUS_CODE) statusCodes[code.ordinal()].increment();
+    }
+
+    /**
+     * 记录一次处理耗时
+     *
+     * @param handler 处理方法
+     * @param nanos   耗时（纳秒）
+     */
+    public void recordLatency(ServerHandler handler, long nanos) {
+        latencies[handler.ordinal()].record(nanos);
+    }
+
+    /**
+     * 记录一次处理异常
+     *
+     * @param handler 处理方法
+     */
+    public void recordFailure(ServerHandler handler) {
+        failures[handler.ordinal()].increment();
+    }
+
+    /**
+     * 拉取当前快照
+     *
+     * @return the snapshot
+     */
+    public Snapshot snapshot() {
+        Map<PowerBoxDataType, Long> messageCounts = new EnumMap<>(PowerBoxDataType.class);
+        for (PowerBoxDataType type : DATA_TYPES) messageCounts.put(type, messages[type.ordinal()].sum());
+        Map<PowerBoxStatusCode, Long> statusCounts = new EnumMap<>(PowerBoxStatusCode.class);
+        for (PowerBoxStatusCode code : STATUS_CODES) {
+            if (code != PowerBoxStatusCode.INVALID_STATUS_CODE) statusCounts.put(code, statusCodes[code.ordinal()].sum());
+        }
+        Map<ServerHandler, Long> failureCounts = new EnumMap<>(ServerHandler.class);
+        Map<ServerHandler, LatencyHistogram.Snapshot> latencySnapshots = new EnumMap<>(ServerHandler.class);
+        for (ServerHandler handler : HANDLERS) {
+            failureCounts.put(handler, failures[handler.ordinal()].sum());
+            latencySnapshots.put(handler, latencies[handler.ordinal()].snapshot());
+        }
+        return new Snapshot(messageCounts, statusCounts, failureCounts, latencySnapshots);
+    }
+
+    /**
+     * 清零全部统计
+     */
+    public void reset() {
+        for (LongAdder adder : messages) adder.reset();
+        for (LongAdder adder : statusCodes) adder.reset();
+        for (LongAdder adder : failures) adder.reset();
+        for (LatencyHistogram histogram : latencies) histogram.reset();
+    }
+
+    /**
+     * 统计快照
+     *
+     * @param messages   按命令类型的消息数
+     * @param statusCodes 按状态码的消息数
+     * @param failures   按处理方法的异常数
+     * @param latencies  按处理方法的延迟直方图
+     */
+    public record Snapshot(
+            Map<PowerBoxDataType, Long> messages,
+            Map<PowerBoxStatusCode, Long> statusCodes,
+            Map<ServerHandler, Long> failures,
+            Map<ServerHandler, LatencyHistogram.Snapshot> latencies
+    ) {
+        private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+        /**
+         * 纯文本格式输出（每行 {@code name{label="value"} number}），延迟单位为秒，未发生过调用的处理方法不输出
+         *
+         * @return the string
+         */
+        public String toText() {
+            StringBuilder builder = new StringBuilder(2048);
+            builder.append("# TYPE dglab_messages_total counter\n");
+            messages.forEach((type, count) ->
+                    builder.append("dglab_messages_total{type=\"").append(type.name()).append("\"} ").append(count).append('\n'));
+            builder.append("# TYPE dglab_status_codes_total counter\n");
+            statusCodes.forEach((code, count) ->
+                    builder.append("dglab_status_codes_total{code=\"").append(code.getCode()).append("\"} ").append(count).append('\n'));
+            builder.append("# TYPE dglab_handler_failures_total counter\n");
+            failures.forEach((handler, count) -> {
+                if (count > 0) builder.append("dglab_handler_failures_total{handler=\"").append(handler.name()).append("\"} ").append(count).append('\n');
+            });
+            builder.append("# TYPE dglab_handler_latency_seconds summary\n");
+            latencies.forEach((handler, histogram) -> {
+                if (histogram.count() == 0) return;
+                String label = "dglab_handler_latency_seconds{handler=\"" + handler.name() + "\"";
+                for (double quantile : QUANTILES) {
+                    builder.append(label).append(",quantile=\"").append(quantile).append("\"} ")
+                            .append(seconds(histogram.percentile(quantile))).append('\n');
+                }
+                builder.append("dglab_handler_latency_seconds_sum{handler=\"").append(handler.name()).append("\"} ")
+                        .append(seconds(histogram.sum())).append('\n');
+                builder.append("dglab_handler_latency_seconds_count{handler=\"").append(handler.name()).append("\"} ")
+                        .append(histogram.count()).append('\n');
+            });
+            // summary 只能包含分位数、_sum 与 _count，最大值单独作为 gauge
+            builder.append("# TYPE dglab_handler_latency_seconds_max gauge\n");
+            latencies.forEach((handler, histogram) -> {
+                if (histogram.count() == 0) return;
+                builder.append("dglab_handler_latency_seconds_max{handler=\"").append(handler.name()).append("\"} ")
+                        .append(seconds(histogram.max())).append('\n');
+            });
+            return builder.toString();
+        }
+
+        private static double seconds(long nanos) {
+            return nanos / 1e9;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/*******************************************************************************
+ * Copyright (c) 2024-2025 R3944Realms. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.r3944realms.dg_lab_api.operation;
+
+/**
+ * {@link ClientOperation} 的处理方法，用于按序号索引的路由表
+ */
+public enum ClientHandler {
+    /**
+     * {@link ClientOperation#ClientStartingHandler()}
+     */
+    CLIENT_STARTING,
+    /**
+     * {@link ClientOperation#ClientStartedHandler()}
+     */
+    CLIENT_STARTED,
+    /**
+     * {@link ClientOperation#ClientStartingErrorHandler()}
+     */
+    CLIENT_STARTING_ERROR,
+    /**
+     * {@link ClientOperation#ClientStoppingHandler()}
+     */
+    CLIENT_STOPPING,
+    /**
+     * {@link ClientOperation#ClientStoppingErrorHandler()}
+     */
+    CLIENT_STOPPING_ERROR,
+    /**
+     * {@link ClientOperation#ClientStoppedHandler()}
+     */
+    CLIENT_STOPPED,
+    /**
+     * {@link ClientOperation#QrCodeUrlHandler(String)}
+     */
+    QR_CODE_URL,
+    /**
+     * {@link ClientOperation#ShowQrCodeHandler()}
+     */
+    SHOW_QR_CODE,
+    /**
+     * {@link ClientOperation#ConnectSuccessfulNoticeHandler()}
+     */
+    CONNECT_SUCCESSFUL,
+    /**
+     * {@link ClientOperation#DisconnectHandler(com.r3944realms.dg_lab_api.websocket.message.data.PowerBoxData)}
+     */
+    DISCONNECT,
+    /**
+     * {@link ClientOperation#ErrorHandler(com.r3944realms.dg_lab_api.websocket.message.data.PowerBoxData)}
+     */
+    ERROR,
+    /**
+     * {@link ClientOperation#HeartBeatHandler(com.r3944realms.dg_lab_api.websocket.message.data.PowerBoxData)}
+     */
+    HEARTBEAT,
+    /**
+     * {@link ClientOperation#OtherMessageHandler(com.r3944realms.dg_lab_api.websocket.message.data.PowerBoxData)}
+     */
+    OTHER
+}
@@ -0,0 +1,236 @@
+/*******************************************************************************
+ * Copyright (c) 2024-2025 R3944Realms. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.r3944realms.dg_lab_api.operation;
+
+import com.r3944realms.dg_lab_api.websocket.message.PowerBoxMessage;
+import com.r3944realms.dg_lab_api.websocket.message.data.PowerBoxData;
+import com.r3944realms.dg_lab_api.websocket.message.data.type.PowerBoxDataType;
+import com.r3944realms.dg_lab_api.websocket.message.data.type.PowerBoxStatusCode;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.function.Consumer;
+
+/**
+ * 消息分发器：对消息只分类一次，再通过按序号索引的处理表调用对应的 {@link ServerOperation} 或 {@link ClientOperation} 方法<br/>
+ * 处理表在构造时绑定，分发过程不产生额外对象。
+ * <ul>
+ *     <li>_NC_BIND_：状态码200为绑定成功，其它合法状态码为绑定失败（客户端侧视为错误），非状态码的绑定请求交给 Other</li>
+ *     <li>STRENGTH：4个参数（A+B+A上限+B上限）为强度通知，否则为强度变更</li>
+ *     <li>PULSE：客户端下发的 clientMsg 波形（见 {@link #commandType(PowerBoxMessage)}）以无清空、默认延迟调用 {@link ServerOperation#PulseClientMessageHandler(PowerBoxMessage, PowerBoxMessage)}</li>
+ * </ul>
+ */
+public final class PowerBoxDispatcher {
+    private static final PowerBoxDataType[] DATA_TYPES = PowerBoxDataType.values();
+    private static final ServerHandler[] SERVER_ROUTES = new ServerHandler[DATA_TYPES.length];
+    private static final ClientHandler[] CLIENT_ROUTES = new ClientHandler[DATA_TYPES.length];
+
+    static {
+        for (PowerBoxDataType type : DATA_TYPES) {
+            SERVER_ROUTES[type.ordinal()] = switch (type) {
+                case _NC_HEARTBEAT_ -> ServerHandler.HEARTBEAT;
+                case _NC_BIND_ -> ServerHandler.BIND_SUCCESS;
+                case _NC_BREAK_ -> ServerHandler.BREAK_CONNECT;
+                case _NC_ERROR_ -> ServerHandler.ERROR_MESSAGE;
+                case STRENGTH -> ServerHandler.STRENGTH_CHANGE;
+                case PULSE -> ServerHandler.PULSE_CLIENT;
+                case CLEAR -> ServerHandler.CLEAR;
+                case FEEDBACK -> ServerHandler.FEEDBACK;
+                case CLIENT_MESSAGE, UNKNOWN -> ServerHandler.OTHER;
+            };
+            CLIENT_ROUTES[type.ordinal()] = switch (type) {
+                case _NC_HEARTBEAT_ -> ClientHandler.HEARTBEAT;
+                case _NC_BIND_ -> ClientHandler.CONNECT_SUCCESSFUL;
+                case _NC_BREAK_ -> ClientHandler.DISCONNECT;
+                case _NC_ERROR_ -> ClientHandler.ERROR;
+                default -> ClientHandler.OTHER;
+            };
+        }
+    }
+
+    @Nullable
+    private final Consumer<PowerBoxMessage>[] serverTable;
+    @Nullable
+    private final ServerOperation serverOperation;
+    @Nullable
+    private final Consumer<PowerBoxData>[] clientTable;
+    @Nullable
+    private final ClientOperation clientOperation;
+
+    /**
+     * Instantiates a new Power box dispatcher.
+     *
+     * @param serverOperation 服务器操作，可为空
+     * @param clientOperation 客户端操作，可为空
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public PowerBoxDispatcher(@Nullable ServerOperation serverOperation, @Nullable ClientOperation clientOperation) {
+        this.serverOperation = serverOperation;
+        this.clientOperation = clientOperation;
+        if (serverOperation != null) {
+            Consumer<PowerBoxMessage>[] table = new Consumer[ServerHandler.values().length];
+            table[ServerHandler.ERROR_MESSAGE.ordinal()] = serverOperation::ErrorMessageHandler;
+            table[ServerHandler.BIND_SUCCESS.ordinal()] = serverOperation::BindSuccessMessageHandler;
+            table[ServerHandler.BIND_FAILURE.ordinal()] = serverOperation::BindFailureMessageHandler;
+            table[ServerHandler.HEARTBEAT.ordinal()] = serverOperation::HeartbeatMessageHandler;
+            table[ServerHandler.CLEAR.ordinal()] = serverOperation::ClearMessageHandler;
+            table[ServerHandler.FEEDBACK.ordinal()] = serverOperation::FeedbackMessageHandler;
+            table[ServerHandler.STRENGTH_NOTICE.ordinal()] = serverOperation::StrengthMessageNoticeMessage;
+            table[ServerHandler.STRENGTH_CHANGE.ordinal()] = serverOperation::StrengthMessageChangeHandler;
+            table[ServerHandler.PULSE_CLIENT.ordinal()] = message -> serverOperation.PulseClientMessageHandler(null, message);
+            table[ServerHandler.BREAK_CONNECT.ordinal()] = serverOperation::BreakConnectMessageHandler;
+            table[ServerHandler.OTHER.ordinal()] = serverOperation::OtherMessageHandler;
+            this.serverTable = table;
+        } else this.serverTable = null;
+        if (clientOperation != null) {
+            Consumer<PowerBoxData>[] table = new Consumer[ClientHandler.values().length];
+            table[ClientHandler.CONNECT_SUCCESSFUL.ordinal()] = data -> clientOperation.ConnectSuccessfulNoticeHandler();
+            table[ClientHandler.DISCONNECT.ordinal()] = clientOperation::DisconnectHandler;
+            table[ClientHandler.ERROR.ordinal()] = clientOperation::ErrorHandler;
+            table[ClientHandler.HEARTBEAT.ordinal()] = clientOperation::HeartBeatHandler;
+            table[ClientHandler.OTHER.ordinal()] = clientOperation::OtherMessageHandler;
+            this.clientTable = table;
+        } else this.clientTable = null;
+    }
+
+    /**
+     * 仅服务器侧的分发器
+     *
+     * @param serverOperation the server operation
+     * @return the power box dispatcher
+     */
+    public static PowerBoxDispatcher forServer(ServerOperation serverOperation) {
+        return new PowerBoxDispatcher(serverOperation, null);
+    }
+
+    /**
+     * 仅客户端侧的分发器
+     *
+     * @param clientOperation the client operation
+     * @return the power box dispatcher
+     */
+    public static PowerBoxDispatcher forClient(ClientOperation clientOperation) {
+        return new PowerBoxDispatcher(null, clientOperation);
+    }
+
+    /**
+     * 对服务器收到的消息分类
+     *
+     * @param message the message
+     * @return 对应的处理方法
+     */
+    public static ServerHandler classifyServer(PowerBoxMessage message) {
+        PowerBoxDataType type = commandType(message);
+        return switch (type) {
+            case _NC_BIND_ -> switch (bindStatus(message.getPayload())) {
+                case SUCCESSFUL -> ServerHandler.BIND_SUCCESS;
+                case INVALID_STATUS_CODE -> ServerHandler.OTHER;
+                default -> ServerHandler.BIND_FAILURE;
+            };
+            case STRENGTH -> message.getPayload().getParsedCommand().argCount() == PowerBoxDataType.STRENGTH.MaxNOP
+                    ? ServerHandler.STRENGTH_NOTICE
+                    : ServerHandler.STRENGTH_CHANGE;
+            default -> SERVER_ROUTES[type.ordinal()];
+        };
+    }
+
+    /**
+     * 消息的命令类型，与 {@link PowerBoxMessage#commandType} 的区别在于：
+     * 波形以 clientMsg 下发（见 {@link com.r3944realms.dg_lab_api.message.IPowerBoxMsg.Pulse}），此处识别为 PULSE 而非 CLIENT_MESSAGE
+     *
+     * @param message the message
+     * @return the power box data type
+     */
+    public static PowerBoxDataType commandType(PowerBoxMessage message) {
+        PowerBoxDataType type = message.commandType == null ? PowerBoxDataType.UNKNOWN : message.commandType;
+        if (type == PowerBoxDataType.CLIENT_MESSAGE) {
+            PowerBoxData payload = message.getPayload();
+            if (payload != null && payload.getCommandType(true) == PowerBoxDataType.PULSE) return PowerBoxDataType.PULSE;
+        }
+        return type;
+    }
+
+    /**
+     * 对客户端收到的数据分类
+     *
+     * @param data the data
+     * @return 对应的处理方法
+     */
+    public static ClientHandler classifyClient(PowerBoxData data) {
+        PowerBoxDataType type = data.getCommandType();
+        if (type == PowerBoxDataType._NC_BIND_) {
+            return switch (bindStatus(data)) {
+                case SUCCESSFUL -> ClientHandler.CONNECT_SUCCESSFUL;
+                case INVALID_STATUS_CODE -> ClientHandler.OTHER;
+                default -> ClientHandler.ERROR;
+            };
+        }
+        return CLIENT_ROUTES[type.ordinal()];
+    }
+
+    private static PowerBoxStatusCode bindStatus(@Nullable PowerBoxData data) {
+        String code = data == null ? null : data.getMessage();
+        return code == null ? PowerBoxStatusCode.INVALID_STATUS_CODE : PowerBoxStatusCode.getStatusCode(code);
+    }
+
+    /**
+     * 将服务器收到的消息分发到 {@link ServerOperation}
+     *
+     * @param message the message
+     * @return 被调用的处理方法
+     * @throws IllegalStateException 未配置服务器操作
+     */
+    public ServerHandler dispatchToServer(PowerBoxMessage message) {
+        if (serverTable == null) throw new IllegalStateException("No ServerOperation configured");
+        ServerHandler handler = classifyServer(message);
+        serverTable[handler.ordinal()].accept(message);
+        return handler;
+    }
+
+    /**
+     * 将客户端收到的数据分发到 {@link ClientOperation}
+     *
+     * @param data the data
+     * @return 被调用的处理方法
+     * @throws IllegalStateException 未配置客户端操作
+     */
+    public ClientHandler dispatchToClient(PowerBoxData data) {
+        if (clientTable == null) throw new IllegalStateException("No ClientOperation configured");
+        ClientHandler handler = classifyClient(data);
+        clientTable[handler.ordinal()].accept(data);
+        return handler;
+    }
+
+    /**
+     * Gets server operation.
+     *
+     * @return the server operation
+     */
+    @Nullable
+    public ServerOperation getServerOperation() {
+        return serverOperation;
+    }
+
+    /**
+     * Gets client operation.
+     *
+     * @return the client operation
+     */
+    @Nullable
+    public ClientOperation getClientOperation() {
+        return clientOperation;
+    }
+}
@@ -0,0 +1,95 @@
+/*******************************************************************************
+ * Copyright (c) 2024-2025 R3944Realms. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.r3944realms.dg_lab_api.operation;
+
+/**
+ * {@link ServerOperation} 的处理方法，用于按序号索引的路由表与统计
+ */
+public enum ServerHandler {
+    /**
+     * {@link ServerOperation#ServerStartingHandler()}
+     */
+    SERVER_STARTING,
+    /**
+     * {@link ServerOperation#ServerStartingErrorHandler()}
+     */
+    SERVER_STARTING_ERROR,
+    /**
+     * {@link ServerOperation#ServerStartedHandler()}
+     */
+    SERVER_STARTED,
+    /**
+     * {@link ServerOperation#ServerStoppingHandler()}
+     */
+    SERVER_STOPPING,
+    /**
+     * {@link ServerOperation#ServerStoppingErrorHandler()}
+     */
+    SERVER_STOPPING_ERROR,
+    /**
+     * {@link ServerOperation#ServerStoppedHandler()}
+     */
+    SERVER_STOPPED,
+    /**
+     * {@link ServerOperation#InactiveConnectionRemoveHandler(String)}
+     */
+    INACTIVE_CONNECTION_REMOVE,
+    /**
+     * {@link ServerOperation#ErrorMessageHandler(com.r3944realms.dg_lab_api.websocket.message.PowerBoxMessage)}
+     */
+    ERROR_MESSAGE,
+    /**
+     * {@link ServerOperation#BindSuccessMessageHandler(com.r3944realms.dg_lab_api.websocket.message.PowerBoxMessage)}
+     */
+    BIND_SUCCESS,
+    /**
+     * {@link ServerOperation#BindFailureMessageHandler(com.r3944realms.dg_lab_api.websocket.message.PowerBoxMessage)}
+     */
+    BIND_FAILURE,
+    /**
+     * {@link ServerOperation#HeartbeatMessageHandler(com.r3944realms.dg_lab_api.websocket.message.PowerBoxMessage)}
+     */
+    HEARTBEAT,
+    /**
+     * {@link ServerOperation#ClearMessageHandler(com.r3944realms.dg_lab_api.websocket.message.PowerBoxMessage)}
+     */
+    CLEAR,
+    /**
+     * {@link ServerOperation#FeedbackMessageHandler(com.r3944realms.dg_lab_api.websocket.message.PowerBoxMessage)}
+     */
+    FEEDBACK,
+    /**
+     * {@link ServerOperation#StrengthMessageNoticeMessage(com.r3944realms.dg_lab_api.websocket.message.PowerBoxMessage)}
+     */
+    STRENGTH_NOTICE,
+    /**
+     * {@link ServerOperation#StrengthMessageChangeHandler(com.r3944realms.dg_lab_api.websocket.message.PowerBoxMessage)}
+     */
+    STRENGTH_CHANGE,
+    /**
+     * {@link ServerOperation#PulseClientMessageHandler(com.r3944realms.dg_lab_api.websocket.message.PowerBoxMessage, com.r3944realms.dg_lab_api.websocket.message.PowerBoxMessage)}
+     */
+    PULSE_CLIENT,
+    /**
+     * {@link ServerOperation#BreakConnectMessageHandler(com.r3944realms.dg_lab_api.websocket.message.PowerBoxMessage)}
+     */
+    BREAK_CONNECT,
+    /**
+     * {@link ServerOperation#OtherMessageHandler(com.r3944realms.dg_lab_api.websocket.message.PowerBoxMessage)}
+     */
+    OTHER
+}
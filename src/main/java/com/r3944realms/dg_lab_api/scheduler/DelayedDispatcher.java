@@ -0,0 +1,134 @@
+/*******************************************************************************
+ * Copyright (c) 2024-2025 R3944Realms. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.r3944realms.dg_lab_api.scheduler;
+
+import com.r3944realms.dg_lab_api.websocket.message.PowerBoxMessage;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 基于 {@link HashedTimingWheel} 的延迟发送工具<br/>
+ * 用于 {@link com.r3944realms.dg_lab_api.operation.ServerOperation#PulseClientMessageHandler(PowerBoxMessage, int, PowerBoxMessage)}
+ * 的“先清空、延迟后发送波形”，以及绑定超时，避免每次发送都创建一个 ScheduledExecutorService 任务。
+ */
+public class DelayedDispatcher implements AutoCloseable {
+    private final HashedTimingWheel wheel;
+    private final boolean ownsWheel;
+    private final ConcurrentHashMap<String, BindTimer> bindTimeouts = new ConcurrentHashMap<>();
+
+    /**
+     * Instantiates a new Delayed dispatcher.
+     */
+    public DelayedDispatcher() {
+        this(new HashedTimingWheel(), true);
+    }
+
+    /**
+     * Instantiates a new Delayed dispatcher.
+     *
+     * @param wheel 共享的时间轮（关闭本对象时不会关闭它）
+     */
+    public DelayedDispatcher(HashedTimingWheel wheel) {
+        this(wheel, false);
+    }
+
+    private DelayedDispatcher(HashedTimingWheel wheel, boolean ownsWheel) {
+        this.wheel = wheel;
+        this.ownsWheel = ownsWheel;
+    }
+
+    /**
+     * 立即发送清空消息，延迟后发送波形消息
+     *
+     * @param clearMessage 清空消息，为 null 时立即发送波形
+     * @param delayMillis  延迟（毫秒）
+     * @param pulseMessage 波形消息
+     * @param sender       发送方法（波形在时间轮线程上发送）
+     * @return 波形发送任务的句柄，立即发送时为 null
+     */
+    @Nullable
+    public HashedTimingWheel.Timeout sendClearThenPulse(@Nullable PowerBoxMessage clearMessage, int delayMillis,
+                                                        PowerBoxMessage pulseMessage, Consumer<PowerBoxMessage> sender) {
+        if (clearMessage == null) {
+            sender.accept(pulseMessage);
+            return null;
+        }
+        sender.accept(clearMessage);
+        return wheel.schedule(() -> sender.accept(pulseMessage), delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 开始绑定超时计时，同一 clientId 的旧计时会被取消
+     *
+     * @param clientId  客户端
+     * @param timeout   超时
+     * @param unit      单位
+     * @param onTimeout 超时后执行（在时间轮线程上）
+     */
+    public void startBindTimeout(String clientId, long timeout, TimeUnit unit, Runnable onTimeout) {
+        BindTimer timer = new BindTimer();
+        BindTimer previous = bindTimeouts.put(clientId, timer);
+        if (previous != null) previous.cancel();
+        timer.timeout = wheel.schedule(() -> {
+            if (bindTimeouts.remove(clientId, timer)) onTimeout.run();
+        }, timeout, unit);
+    }
+
+    /**
+     * 绑定完成（或连接断开）时取消超时计时
+     *
+     * @param clientId 客户端
+     * @return 是否存在并取消了计时
+     */
+    public boolean cancelBindTimeout(String clientId) {
+        BindTimer timer = bindTimeouts.remove(clientId);
+        if (timer == null) return false;
+        timer.cancel();
+        return true;
+    }
+
+    /**
+     * 正在计时的绑定数
+     *
+     * @return the int
+     */
+    public int pendingBinds() {
+        return bindTimeouts.size();
+    }
+
+    @Override
+    public void close() {
+        bindTimeouts.values().forEach(BindTimer::cancel);
+        bindTimeouts.clear();
+        if (ownsWheel) wheel.close();
+    }
+
+    /**
+     * 先放入表中再调度，超时任务以是否仍在表中判断是否已被取消
+     */
+    private static final class BindTimer {
+        private volatile HashedTimingWheel.Timeout timeout;
+
+        private void cancel() {
+            HashedTimingWheel.Timeout timeout = this.timeout;
+            if (timeout != null) timeout.cancel();
+        }
+    }
+}
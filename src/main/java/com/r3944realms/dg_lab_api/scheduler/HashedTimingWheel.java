@@ -0,0 +1,278 @@
+/*******************************************************************************
+ * Copyright (c) 2024-2025 R3944Realms. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.r3944realms.dg_lab_api.scheduler;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 哈希时间轮<br/>
+ * 用于大量短延迟的定时任务（如清空后延迟发送波形、绑定超时），
+ * 插入与取消均为 O(1)，到期任务按 tick 批量在工作线程上执行。
+ * 精度为一个 tick，任务应尽快返回，耗时的工作请转交给其它线程。<br/>
+ * 与 {@link java.util.concurrent.ScheduledThreadPoolExecutor} 的调度+取消开销对比见 jmh 源集中的
+ * <code>benchmark.TimerBenchmark</code>（<code>./gradlew jmh</code>）。
+ */
+public class HashedTimingWheel implements AutoCloseable {
+    /**
+     * 默认 tick 时长（毫秒）
+     */
+    public static final long DEFAULT_TICK_MILLIS = 10;
+    /**
+     * 默认槽数
+     */
+    public static final int DEFAULT_TICKS_PER_WHEEL = 512;
+    private static final Logger LOGGER = LoggerFactory.getLogger(HashedTimingWheel.class);
+
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final Queue<Timeout> added = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout> cancelled = new ConcurrentLinkedQueue<>();
+    private final AtomicLong pending = new AtomicLong();
+    private final Thread worker;
+    private final long startNanos;
+    private volatile boolean running = true;
+    private long tick;
+
+    /**
+     * Instantiates a new Hashed timing wheel.
+     */
+    public HashedTimingWheel() {
+        this(DEFAULT_TICK_MILLIS, TimeUnit.MILLISECONDS, DEFAULT_TICKS_PER_WHEEL);
+    }
+
+    /**
+     * Instantiates a new Hashed timing wheel.
+     *
+     * @param tickDuration  tick 时长
+     * @param unit          单位
+     * @param ticksPerWheel 槽数（向上取为2的幂）
+     */
+    public HashedTimingWheel(long tickDuration, TimeUnit unit, int ticksPerWheel) {
+        if (tickDuration <= 0) throw new IllegalArgumentException("tickDuration must be greater than 0");
+        if (ticksPerWheel <= 0 || ticksPerWheel > 1 << 30)
+            throw new IllegalArgumentException("ticksPerWheel must be in the range of [1,2^30]");
+        int size = 1;
+        while (size < ticksPerWheel) size <<= 1;
+        this.tickNanos = unit.toNanos(tickDuration);
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < size; i++) wheel[i] = new Bucket();
+        this.mask = size - 1;
+        this.startNanos = System.nanoTime();
+        this.worker = new Thread(this::run, "DG-LAB-TimingWheel");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * 延迟执行任务
+     *
+     * @param task  任务，在工作线程上执行
+     * @param delay 延迟
+     * @param unit  单位
+     * @return 可取消的句柄
+     */
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        if (!running) throw new IllegalStateException("HashedTimingWheel is closed");
+        long deadline = System.nanoTime() - startNanos + Math.max(0, unit.toNanos(delay));
+        Timeout timeout = new Timeout(this, task, deadline);
+        pending.incrementAndGet();
+        added.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * 尚未到期或取消的任务数
+     *
+     * @return the long
+     */
+    public long pendingTimeouts() {
+        return pending.get();
+    }
+
+    /**
+     * 停止工作线程，未到期的任务不再执行
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(worker);
+    }
+
+    private void run() {
+        while (running) {
+            long deadline = waitForNextTick();
+            if (!running) break;
+            processCancelled();
+            transferAdded();
+            wheel[(int) (tick & mask)].expire(deadline);
+            tick++;
+        }
+    }
+
+    private long waitForNextTick() {
+        long deadline = tickNanos * (tick + 1);
+        while (running) {
+            long now = System.nanoTime() - startNanos;
+            long sleep = deadline - now;
+            if (sleep <= 0) return now;
+            LockSupport.parkNanos(this, sleep);
+        }
+        return deadline;
+    }
+
+    private void transferAdded() {
+        // 每个 tick 最多转移 100000 个，避免新任务过多时饿死到期处理
+        for (int i = 0; i < 100_000; i++) {
+            Timeout timeout = added.poll();
+            if (timeout == null) return;
+            if (timeout.state != Timeout.ST_INIT) continue;
+            long calculated = timeout.deadline / tickNanos;
+            timeout.remainingRounds = (calculated - tick) / wheel.length;
+            long ticks = Math.max(calculated, tick);
+            wheel[(int) (ticks & mask)].add(timeout);
+        }
+    }
+
+    private void processCancelled() {
+        Timeout timeout;
+        while ((timeout = cancelled.poll()) != null) {
+            if (timeout.bucket != null) timeout.bucket.remove(timeout);
+        }
+    }
+
+    /**
+     * 定时任务句柄
+     */
+    public static final class Timeout {
+        private static final int ST_INIT = 0;
+        private static final int ST_CANCELLED = 1;
+        private static final int ST_EXPIRED = 2;
+        private static final AtomicIntegerFieldUpdater<Timeout> STATE =
+                AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "state");
+
+        private final HashedTimingWheel timer;
+        private final Runnable task;
+        private final long deadline;
+        private volatile int state;
+        private long remainingRounds;
+        private Timeout next;
+        private Timeout prev;
+        private Bucket bucket;
+
+        private Timeout(HashedTimingWheel timer, Runnable task, long deadline) {
+            this.timer = timer;
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * 取消任务
+         *
+         * @return 是否成功取消（已到期或已取消时为 false）
+         */
+        public boolean cancel() {
+            if (!STATE.compareAndSet(this, ST_INIT, ST_CANCELLED)) return false;
+            timer.pending.decrementAndGet();
+            timer.cancelled.add(this);
+            return true;
+        }
+
+        /**
+         * Is cancelled boolean.
+         *
+         * @return the boolean
+         */
+        public boolean isCancelled() {
+            return state == ST_CANCELLED;
+        }
+
+        /**
+         * Is expired boolean.
+         *
+         * @return the boolean
+         */
+        public boolean isExpired() {
+            return state == ST_EXPIRED;
+        }
+
+        private void expire() {
+            if (!STATE.compareAndSet(this, ST_INIT, ST_EXPIRED)) return;
+            timer.pending.decrementAndGet();
+            try {
+                task.run();
+            } catch (Throwable t) {
+                LOGGER.warn("Timer task threw an exception", t);
+            }
+        }
+    }
+
+    /**
+     * 槽，仅由工作线程访问的双向链表
+     */
+    private static final class Bucket {
+        private Timeout head;
+        private Timeout tail;
+
+        private void add(Timeout timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        private void expire(long deadline) {
+            Timeout timeout = head;
+            while (timeout != null) {
+                Timeout next = timeout.next;
+                if (timeout.isCancelled()) {
+                    remove(timeout);
+                } else if (timeout.remainingRounds > 0) {
+                    timeout.remainingRounds--;
+                } else if (timeout.deadline <= deadline) {
+                    remove(timeout);
+                    timeout.expire();
+                }
+                timeout = next;
+            }
+        }
+
+        private void remove(Timeout timeout) {
+            if (timeout.bucket != this) return;
+            Timeout next = timeout.next;
+            if (timeout.prev != null) timeout.prev.next = next;
+            if (next != null) next.prev = timeout.prev;
+            if (timeout == head) head = next;
+            if (timeout == tail) tail = timeout.prev;
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+    }
+}
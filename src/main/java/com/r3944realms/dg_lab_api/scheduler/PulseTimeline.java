@@ -0,0 +1,285 @@
+/*******************************************************************************
+ * Copyright (c) 2024-2025 R3944Realms. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.r3944realms.dg_lab_api.scheduler;
+
+import com.r3944realms.dg_lab_api.message.IPowerBoxMsg;
+import com.r3944realms.dg_lab_api.message.argType.Channel;
+import com.r3944realms.dg_lab_api.message.data.PackedPulseWaveList;
+import com.r3944realms.dg_lab_api.message.data.PulseWaveList;
+import com.r3944realms.dg_lab_api.websocket.message.data.CommandValidator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 波形时间线<br/>
+ * 接受任意长度的波形，按 (targetId, {@link Channel}) 切分为不超过
+ * {@link CommandValidator#MAX_WAVEFORM_FRAMES} 段的块，并在设备缓冲即将播放完之前
+ * （提前 {@link #getLeadMillis()}）发送下一块。每块以 {@link IPowerBoxMsg.Pulse} 发出，
+ * 其 timer 附加值为该块的播放时长（秒，向上取整）。<br/>
+ * 所有时间线由单个调度线程以优先队列驱动，可同时服务数千个会话。
+ */
+public class PulseTimeline implements AutoCloseable {
+    /**
+     * 每段波形的播放时长
+     */
+    public static final long FRAME_MILLIS = 100;
+    /**
+     * 默认提前量
+     */
+    public static final long DEFAULT_LEAD_MILLIS = 200;
+    private static final Logger LOGGER = LoggerFactory.getLogger(PulseTimeline.class);
+
+    private final Sink sink;
+    private final long leadNanos;
+    private final ConcurrentHashMap<Key, Track> tracks = new ConcurrentHashMap<>();
+    private final PriorityQueue<Track> queue = new PriorityQueue<>(Comparator.comparingLong((Track track) -> track.dueNanos));
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final Thread thread;
+    private final LongAdder chunks = new LongAdder();
+    private final LongAdder frames = new LongAdder();
+    private volatile boolean running = true;
+
+    /**
+     * Instantiates a new Pulse timeline.
+     *
+     * @param sink 波形块的接收者
+     */
+    public PulseTimeline(Sink sink) {
+        this(sink, DEFAULT_LEAD_MILLIS);
+    }
+
+    /**
+     * Instantiates a new Pulse timeline.
+     *
+     * @param sink       波形块的接收者
+     * @param leadMillis 在上一块播放完之前多久发送下一块
+     */
+    public PulseTimeline(Sink sink, long leadMillis) {
+        if (leadMillis < 0) throw new IllegalArgumentException("leadMillis must not be negative");
+        this.sink = sink;
+        this.leadNanos = TimeUnit.MILLISECONDS.toNanos(leadMillis);
+        this.thread = new Thread(this::run, "DG-LAB-PulseTimeline");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * 播放波形，替换该通道上正在播放的时间线
+     *
+     * @param targetId 目标
+     * @param channel  通道
+     * @param waves    波形（会被复制）
+     */
+    public void play(String targetId, Channel channel, PackedPulseWaveList waves) {
+        if (!running) throw new IllegalStateException("PulseTimeline is closed");
+        Key key = new Key(targetId, channel);
+        Track track = new Track(key, waves.toArray());
+        Track previous = tracks.put(key, track);
+        if (previous != null) previous.cancelled = true;
+        if (track.frames.length == 0) {
+            tracks.remove(key, track);
+            return;
+        }
+        lock.lock();
+        try {
+            track.dueNanos = System.nanoTime();
+            queue.add(track);
+            changed.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 播放波形，替换该通道上正在播放的时间线
+     *
+     * @param targetId 目标
+     * @param channel  通道
+     * @param waves    波形
+     */
+    public void play(String targetId, Channel channel, PulseWaveList waves) {
+        play(targetId, channel, PackedPulseWaveList.fromPulseWaveList(waves));
+    }
+
+    /**
+     * 停止该通道上的时间线（已发送的块不受影响）
+     *
+     * @param targetId 目标
+     * @param channel  通道
+     */
+    public void stop(String targetId, Channel channel) {
+        Track track = tracks.remove(new Key(targetId, channel));
+        if (track != null) track.cancelled = true;
+    }
+
+    /**
+     * 停止该目标所有通道上的时间线
+     *
+     * @param targetId 目标
+     */
+    public void stop(String targetId) {
+        for (Channel channel : Channel.values()) {
+            stop(targetId, channel);
+        }
+    }
+
+    /**
+     * 正在播放的时间线数
+     *
+     * @return the int
+     */
+    public int activeTracks() {
+        return tracks.size();
+    }
+
+    /**
+     * 已发送的块数
+     *
+     * @return the long
+     */
+    public long getChunkCount() {
+        return chunks.sum();
+    }
+
+    /**
+     * 已发送的波形段数
+     *
+     * @return the long
+     */
+    public long getFrameCount() {
+        return frames.sum();
+    }
+
+    /**
+     * Gets lead millis.
+     *
+     * @return the lead millis
+     */
+    public long getLeadMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(leadNanos);
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        lock.lock();
+        try {
+            changed.signal();
+        } finally {
+            lock.unlock();
+        }
+        tracks.clear();
+    }
+
+    private void run() {
+        while (running) {
+            Track track;
+            lock.lock();
+            try {
+                track = queue.peek();
+                long now = System.nanoTime();
+                if (track == null || track.dueNanos > now) {
+                    if (track == null) changed.await();
+                    else changed.awaitNanos(track.dueNanos - now);
+                    continue;
+                }
+                queue.poll();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                lock.unlock();
+            }
+            if (track.cancelled) continue;
+            int from = track.cursor;
+            int to = Math.min(track.frames.length, from + CommandValidator.MAX_WAVEFORM_FRAMES);
+            track.cursor = to;
+            long sentNanos = System.nanoTime();
+            // 设备从上一块播完（或已空闲时从现在）开始播放这一块
+            track.playEndNanos = from == 0 ? sentNanos : Math.max(track.playEndNanos, sentNanos);
+            emit(track, from, to);
+            track.playEndNanos += TimeUnit.MILLISECONDS.toNanos((to - from) * FRAME_MILLIS);
+            if (to < track.frames.length) {
+                lock.lock();
+                try {
+                    track.dueNanos = Math.max(System.nanoTime(), track.playEndNanos - leadNanos);
+                    queue.add(track);
+                } finally {
+                    lock.unlock();
+                }
+            } else {
+                tracks.remove(track.key, track);
+            }
+        }
+    }
+
+    private void emit(Track track, int from, int to) {
+        PackedPulseWaveList chunk = new PackedPulseWaveList(to - from);
+        chunk.addAll(track.frames, from, to - from);
+        int seconds = (int) ((((long) (to - from)) * FRAME_MILLIS + 999) / 1000);
+        IPowerBoxMsg.Pulse pulse = new IPowerBoxMsg.Pulse(track.key.channel(), chunk.toPulseWaveList(), seconds);
+        chunks.increment();
+        frames.add(to - from);
+        try {
+            sink.accept(track.key.targetId(), pulse);
+        } catch (RuntimeException e) {
+            LOGGER.error("Failed to emit pulse chunk to {}", track.key.targetId(), e);
+        }
+    }
+
+    /**
+     * 波形块的接收者，在调度线程上调用，应尽快返回
+     */
+    @FunctionalInterface
+    public interface Sink {
+        /**
+         * 接收一个波形块
+         *
+         * @param targetId 目标
+         * @param pulse    波形块
+         */
+        void accept(String targetId, IPowerBoxMsg.Pulse pulse);
+    }
+
+    private record Key(String targetId, Channel channel) {}
+
+    private static final class Track {
+        private final Key key;
+        private final long[] frames;
+        private int cursor;
+        private long dueNanos;
+        /**
+         * 已发送部分在设备上预计播放完毕的时刻
+         */
+        private long playEndNanos;
+        private volatile boolean cancelled;
+
+        private Track(Key key, long[] frames) {
+            this.key = key;
+            this.frames = frames;
+        }
+    }
+}
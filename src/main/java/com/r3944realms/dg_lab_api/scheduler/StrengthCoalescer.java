@@ -0,0 +1,246 @@
+/*******************************************************************************
+ * Copyright (c) 2024-2025 R3944Realms. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.r3944realms.dg_lab_api.scheduler;
+
+import com.r3944realms.dg_lab_api.message.IPowerBoxMsg;
+import com.r3944realms.dg_lab_api.message.argType.ChangePolicy;
+import com.r3944realms.dg_lab_api.message.argType.Channel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 强度指令合并器<br/>
+ * 按 (targetId, {@link Channel}) 收集一段时间窗口内的 {@link IPowerBoxMsg.StrengthChange}，
+ * 合并为最少的等价指令后按 targetId 一次性交给 {@link Sink}：
+ * <ul>
+ * <li>只有 INCREASE/DECREASE 时合并为一条净变化量（为0则不发送），假定中途未触及强度上下限</li>
+ * <li>出现 GOTO 后，之后的增减在 0~200 范围内累加到目标值上，最终只发送一条 GOTO</li>
+ * </ul>
+ * 线程安全，{@link #submit(String, IPowerBoxMsg.StrengthChange)} 可在任意线程调用。
+ */
+public class StrengthCoalescer {
+    /**
+     * 强度上限
+     */
+    public static final int MAX_STRENGTH = 200;
+
+    private final Sink sink;
+    private final ConcurrentHashMap<String, Pending> pending = new ConcurrentHashMap<>();
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder emitted = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder totalLatencyNanos = new LongAdder();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+    /**
+     * Instantiates a new Strength coalescer.
+     *
+     * @param sink 合并后指令的接收者
+     */
+    public StrengthCoalescer(Sink sink) {
+        this.sink = sink;
+    }
+
+    /**
+     * 提交一条强度改变指令
+     *
+     * @param targetId 目标
+     * @param change   强度改变
+     */
+    public void submit(String targetId, IPowerBoxMsg.StrengthChange change) {
+        submitted.increment();
+        while (true) {
+            Pending state = pending.computeIfAbsent(targetId, k -> new Pending());
+            synchronized (state) {
+                if (!state.closed) {
+                    state.apply(change);
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * 立即发送所有待合并的指令
+     *
+     * @return 发送的指令数
+     */
+    public int flush() {
+        int frames = 0;
+        for (Map.Entry<String, Pending> entry : pending.entrySet()) {
+            String targetId = entry.getKey();
+            Pending state = entry.getValue();
+            List<IPowerBoxMsg.StrengthChange> batch;
+            long firstNanos;
+            synchronized (state) {
+                state.closed = true;
+                pending.remove(targetId, state);
+                batch = state.drain();
+                firstNanos = state.firstNanos;
+            }
+            if (batch.isEmpty()) continue;
+            long latency = System.nanoTime() - firstNanos;
+            totalLatencyNanos.add(latency);
+            maxLatencyNanos.accumulateAndGet(latency, Math::max);
+            batches.increment();
+            emitted.add(batch.size());
+            frames += batch.size();
+            sink.accept(targetId, batch);
+        }
+        return frames;
+    }
+
+    /**
+     * 以固定窗口周期性调用 {@link #flush()}
+     *
+     * @param executor 调度线程
+     * @param window   窗口长度
+     * @param unit     单位
+     * @return 可用于停止的 future
+     */
+    public ScheduledFuture<?> start(ScheduledExecutorService executor, long window, TimeUnit unit) {
+        return executor.scheduleAtFixedRate(this::flush, window, window, unit);
+    }
+
+    /**
+     * 待合并的目标数
+     *
+     * @return the int
+     */
+    public int pendingTargets() {
+        return pending.size();
+    }
+
+    /**
+     * 提交的指令数
+     *
+     * @return the long
+     */
+    public long getSubmittedCount() {
+        return submitted.sum();
+    }
+
+    /**
+     * 合并后发送的指令数
+     *
+     * @return the long
+     */
+    public long getEmittedCount() {
+        return emitted.sum();
+    }
+
+    /**
+     * 发送的批次数（每个目标每次刷新为一批）
+     *
+     * @return the long
+     */
+    public long getBatchCount() {
+        return batches.sum();
+    }
+
+    /**
+     * 每批从第一条指令提交到发送的平均延迟
+     *
+     * @return 纳秒
+     */
+    public long getAverageLatencyNanos() {
+        long count = batches.sum();
+        return count == 0 ? 0 : totalLatencyNanos.sum() / count;
+    }
+
+    /**
+     * 每批从第一条指令提交到发送的最大延迟
+     *
+     * @return 纳秒
+     */
+    public long getMaxLatencyNanos() {
+        return maxLatencyNanos.get();
+    }
+
+    /**
+     * 合并后指令的接收者
+     */
+    @FunctionalInterface
+    public interface Sink {
+        /**
+         * 接收一个目标的一批指令（每个通道最多一条）
+         *
+         * @param targetId 目标
+         * @param batch    合并后的指令
+         */
+        void accept(String targetId, List<IPowerBoxMsg.StrengthChange> batch);
+    }
+
+    private static final class Pending {
+        private final Folded[] channels = new Folded[Channel.values().length];
+        private final long firstNanos = System.nanoTime();
+        private boolean closed;
+
+        private void apply(IPowerBoxMsg.StrengthChange change) {
+            Folded folded = channels[change.channel().ordinal()];
+            if (folded == null) folded = channels[change.channel().ordinal()] = new Folded();
+            folded.apply(change.policy(), change.value());
+        }
+
+        private List<IPowerBoxMsg.StrengthChange> drain() {
+            List<IPowerBoxMsg.StrengthChange> batch = new ArrayList<>(channels.length);
+            Channel[] values = Channel.values();
+            for (int i = 0; i < channels.length; i++) {
+                Folded folded = channels[i];
+                if (folded == null) continue;
+                IPowerBoxMsg.StrengthChange change = folded.toChange(values[i]);
+                if (change != null) batch.add(change);
+            }
+            return batch;
+        }
+    }
+
+    private static final class Folded {
+        private boolean absolute;
+        private int value;
+
+        private void apply(ChangePolicy policy, int amount) {
+            switch (policy) {
+                case GOTO -> {
+                    absolute = true;
+                    value = clamp(amount);
+                }
+                case INCREASE -> value = absolute ? clamp(value + amount) : value + amount;
+                case DECREASE -> value = absolute ? clamp(value - amount) : value - amount;
+            }
+        }
+
+        private IPowerBoxMsg.StrengthChange toChange(Channel channel) {
+            if (absolute) return new IPowerBoxMsg.StrengthChange(channel, ChangePolicy.GOTO, value);
+            if (value > 0) return new IPowerBoxMsg.StrengthChange(channel, ChangePolicy.INCREASE, Math.min(value, MAX_STRENGTH));
+            if (value < 0) return new IPowerBoxMsg.StrengthChange(channel, ChangePolicy.DECREASE, Math.min(-value, MAX_STRENGTH));
+            return null;
+        }
+
+        private static int clamp(int value) {
+            return Math.max(0, Math.min(MAX_STRENGTH, value));
+        }
+    }
+}
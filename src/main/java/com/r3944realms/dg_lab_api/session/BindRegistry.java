@@ -0,0 +1,246 @@
+/*******************************************************************************
+ * Copyright (c) 2024-2025 R3944Realms. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.r3944realms.dg_lab_api.session;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.Striped;
+import com.r3944realms.dg_lab_api.websocket.message.data.type.PowerBoxStatusCode;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * 绑定关系表<br/>
+ * 记录在线的 id 以及 clientId &lt;-&gt; targetId 的一对一绑定关系，
+ * 两个方向的查询均为无锁的 O(1)；绑定、解绑与下线对涉及的两个 id 加分段锁，保证两个方向同时更新。
+ * 结果直接以 {@link PowerBoxStatusCode} 返回。
+ */
+public class BindRegistry {
+    /**
+     * 默认锁分段数
+     */
+    public static final int DEFAULT_STRIPES = 1024;
+
+    private final Set<String> connected;
+    private final ConcurrentHashMap<String, String> clientToTarget;
+    private final ConcurrentHashMap<String, String> targetToClient;
+    private final Striped<Lock> locks;
+
+    /**
+     * Instantiates a new Bind registry.
+     */
+    public BindRegistry() {
+        this(16, DEFAULT_STRIPES);
+    }
+
+    /**
+     * Instantiates a new Bind registry.
+     *
+     * @param expectedPairs 预计的绑定数
+     * @param stripes       锁分段数
+     */
+    public BindRegistry(int expectedPairs, int stripes) {
+        this.connected = ConcurrentHashMap.newKeySet(expectedPairs * 2);
+        this.clientToTarget = new ConcurrentHashMap<>(expectedPairs);
+        this.targetToClient = new ConcurrentHashMap<>(expectedPairs);
+        this.locks = Striped.lock(stripes);
+    }
+
+    /**
+     * 上线
+     *
+     * @param id 客户端或APP的 id
+     * @return 是否为新上线
+     */
+    public boolean register(String id) {
+        return connected.add(id);
+    }
+
+    /**
+     * 下线，同时解除其绑定关系
+     *
+     * @param id 客户端或APP的 id
+     * @return 原绑定的另一方（需通知其 {@link PowerBoxStatusCode#OPPOSITE_CLIENT_DISCONNECTED}），无则为 null
+     */
+    @Nullable
+    public String unregister(String id) {
+        while (true) {
+            String partner = getPartner(id);
+            List<Lock> held = lockAll(id, partner);
+            try {
+                if (!Objects.equals(partner, getPartner(id))) continue;
+                connected.remove(id);
+                if (partner != null) {
+                    clientToTarget.remove(id);
+                    targetToClient.remove(id);
+                    clientToTarget.remove(partner);
+                    targetToClient.remove(partner);
+                }
+                return partner;
+            } finally {
+                unlockAll(held);
+            }
+        }
+    }
+
+    /**
+     * 绑定
+     *
+     * @param clientId 客户端
+     * @param targetId APP
+     * @return {@link PowerBoxStatusCode#SUCCESSFUL}（已是该绑定关系时同样返回），
+     * {@link PowerBoxStatusCode#TARGET_CLIENT_NOT_EXIST} 或 {@link PowerBoxStatusCode#TRYING_BINDING_ALREADY_BOUND_ID}
+     */
+    public PowerBoxStatusCode bind(String clientId, String targetId) {
+        if (clientId.equals(targetId)) return PowerBoxStatusCode.INVALID_REQUEST;
+        List<Lock> held = lockAll(clientId, targetId);
+        try {
+            if (!connected.contains(clientId) || !connected.contains(targetId))
+                return PowerBoxStatusCode.TARGET_CLIENT_NOT_EXIST;
+            String currentTarget = clientToTarget.get(clientId);
+            if (targetId.equals(currentTarget)) return PowerBoxStatusCode.SUCCESSFUL;
+            if (currentTarget != null || targetToClient.containsKey(clientId)
+                    || targetToClient.containsKey(targetId) || clientToTarget.containsKey(targetId))
+                return PowerBoxStatusCode.TRYING_BINDING_ALREADY_BOUND_ID;
+            clientToTarget.put(clientId, targetId);
+            targetToClient.put(targetId, clientId);
+            return PowerBoxStatusCode.SUCCESSFUL;
+        } finally {
+            unlockAll(held);
+        }
+    }
+
+    /**
+     * 解绑
+     *
+     * @param clientId 客户端
+     * @param targetId APP
+     * @return {@link PowerBoxStatusCode#SUCCESSFUL} 或 {@link PowerBoxStatusCode#NOT_BINDING_RELATIONSHIP}
+     */
+    public PowerBoxStatusCode unbind(String clientId, String targetId) {
+        List<Lock> held = lockAll(clientId, targetId);
+        try {
+            if (!targetId.equals(clientToTarget.get(clientId))) return PowerBoxStatusCode.NOT_BINDING_RELATIONSHIP;
+            clientToTarget.remove(clientId);
+            targetToClient.remove(targetId);
+            return PowerBoxStatusCode.SUCCESSFUL;
+        } finally {
+            unlockAll(held);
+        }
+    }
+
+    /**
+     * 转发前检查双方的绑定关系（任一方向）
+     *
+     * @param senderId   寄信方
+     * @param receiverId 收信方
+     * @return {@link PowerBoxStatusCode#SUCCESSFUL}、{@link PowerBoxStatusCode#NOT_FOUND_BECAUSE_OF_OFFLINE}
+     * 或 {@link PowerBoxStatusCode#NOT_BINDING_RELATIONSHIP}
+     */
+    public PowerBoxStatusCode checkRelationship(String senderId, String receiverId) {
+        if (!receiverId.equals(getPartner(senderId))) return PowerBoxStatusCode.NOT_BINDING_RELATIONSHIP;
+        if (!connected.contains(receiverId)) return PowerBoxStatusCode.NOT_FOUND_BECAUSE_OF_OFFLINE;
+        return PowerBoxStatusCode.SUCCESSFUL;
+    }
+
+    /**
+     * 客户端绑定的APP
+     *
+     * @param clientId 客户端
+     * @return the target, 未绑定时为 null
+     */
+    @Nullable
+    public String getTarget(String clientId) {
+        return clientToTarget.get(clientId);
+    }
+
+    /**
+     * APP绑定的客户端
+     *
+     * @param targetId APP
+     * @return the client, 未绑定时为 null
+     */
+    @Nullable
+    public String getClient(String targetId) {
+        return targetToClient.get(targetId);
+    }
+
+    /**
+     * 绑定的另一方（不区分方向）
+     *
+     * @param id the id
+     * @return the partner, 未绑定时为 null
+     */
+    @Nullable
+    public String getPartner(String id) {
+        String target = clientToTarget.get(id);
+        return target != null ? target : targetToClient.get(id);
+    }
+
+    /**
+     * Is connected boolean.
+     *
+     * @param id the id
+     * @return the boolean
+     */
+    public boolean isConnected(String id) {
+        return connected.contains(id);
+    }
+
+    /**
+     * 在线数
+     *
+     * @return the int
+     */
+    public int connectedCount() {
+        return connected.size();
+    }
+
+    /**
+     * 绑定关系数
+     *
+     * @return the int
+     */
+    public int bindingCount() {
+        return clientToTarget.size();
+    }
+
+    private List<Lock> lockAll(String first, @Nullable String second) {
+        List<Lock> held = second == null
+                ? List.of(locks.get(first))
+                : ImmutableList.copyOf(locks.bulkGet(ImmutableList.of(first, second)));
+        Lock previous = null;
+        for (Lock lock : held) {
+            // 两个 id 落在同一分段时 bulkGet 会返回同一把锁两次
+            if (lock != previous) lock.lock();
+            previous = lock;
+        }
+        return held;
+    }
+
+    private static void unlockAll(List<Lock> held) {
+        Lock previous = null;
+        for (Lock lock : held) {
+            if (lock != previous) lock.unlock();
+            previous = lock;
+        }
+    }
+}
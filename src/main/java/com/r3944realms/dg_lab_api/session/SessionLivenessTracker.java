@@ -0,0 +1,283 @@
+/*******************************************************************************
+ * Copyright (c) 2024-2025 R3944Realms. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.r3944realms.dg_lab_api.session;
+
+import com.r3944realms.dg_lab_api.operation.ServerOperation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * 会话存活跟踪<br/>
+ * 每个会话占用一个槽位，心跳只向 long 数组的对应槽位写入当前时间；
+ * 由单个清理任务线性扫描槽位，分批找出超时的会话并调用处理方法（如
+ * {@link ServerOperation#InactiveConnectionRemoveHandler(String)}），不为每个会话创建定时器。
+ * 容量在创建时固定。<br/>
+ * {@link #register(String)} 返回的句柄由槽位与该槽位的代数组成，槽位被释放后代数加一，旧句柄随即失效。
+ */
+public class SessionLivenessTracker {
+    /**
+     * 每批回调的最大会话数
+     */
+    public static final int SWEEP_BATCH = 1024;
+    private static final Logger LOGGER = LoggerFactory.getLogger(SessionLivenessTracker.class);
+    private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final long timeoutNanos;
+    private final Consumer<String> onExpired;
+    private final long[] lastSeen;
+    private final AtomicReferenceArray<String> ids;
+    private final AtomicIntegerArray generations;
+    private final ConcurrentHashMap<String, Integer> slots;
+    private final int[] freeSlots;
+    private int freeCount;
+    private volatile int highWater;
+    private final LongAdder expired = new LongAdder();
+    private volatile long lastSweepNanos;
+
+    /**
+     * Instantiates a new Session liveness tracker.
+     *
+     * @param capacity  最大会话数
+     * @param timeout   超时
+     * @param unit      单位
+     * @param operation 超时后调用其 {@link ServerOperation#InactiveConnectionRemoveHandler(String)}
+     */
+    public SessionLivenessTracker(int capacity, long timeout, TimeUnit unit, ServerOperation operation) {
+        this(capacity, timeout, unit, operation::InactiveConnectionRemoveHandler);
+    }
+
+    /**
+     * Instantiates a new Session liveness tracker.
+     *
+     * @param capacity  最大会话数
+     * @param timeout   超时
+     * @param unit      单位
+     * @param onExpired 超时后调用（在清理线程上）
+     */
+    public SessionLivenessTracker(int capacity, long timeout, TimeUnit unit, Consumer<String> onExpired) {
+        if (capacity <= 0) throw new IllegalArgumentException("capacity must be greater than 0");
+        this.timeoutNanos = unit.toNanos(timeout);
+        this.onExpired = onExpired;
+        this.lastSeen = new long[capacity];
+        this.ids = new AtomicReferenceArray<>(capacity);
+        this.generations = new AtomicIntegerArray(capacity);
+        this.slots = new ConcurrentHashMap<>(capacity);
+        this.freeSlots = new int[capacity];
+    }
+
+    /**
+     * 登记会话并记录一次心跳，已登记时只记录心跳
+     *
+     * @param id 会话 id
+     * @return 句柄，可用于 {@link #heartbeat(long)}
+     * @throws IllegalStateException 已达到容量上限
+     */
+    public long register(String id) {
+        Integer existing = slots.get(id);
+        if (existing != null) {
+            int generation = generations.get(existing);
+            if (id.equals(ids.get(existing))) {
+                touch(existing);
+                return handle(existing, generation);
+            }
+        }
+        synchronized (freeSlots) {
+            existing = slots.get(id);
+            if (existing != null) {
+                touch(existing);
+                return handle(existing, generations.get(existing));
+            }
+            int slot;
+            if (freeCount > 0) {
+                slot = freeSlots[--freeCount];
+            } else if (highWater < lastSeen.length) {
+                slot = highWater++;
+            } else {
+                throw new IllegalStateException("SessionLivenessTracker is full (capacity " + lastSeen.length + ")");
+            }
+            SLOTS.setOpaque(lastSeen, slot, System.nanoTime());
+            ids.set(slot, id);
+            slots.put(id, slot);
+            return handle(slot, generations.get(slot));
+        }
+    }
+
+    /**
+     * 记录心跳
+     *
+     * @param id 会话 id
+     * @return 会话是否已登记
+     */
+    public boolean heartbeat(String id) {
+        Integer slot = slots.get(id);
+        if (slot == null) return false;
+        touch(slot);
+        return true;
+    }
+
+    /**
+     * 记录心跳（按句柄，不查表）
+     *
+     * @param handle {@link #register(String)} 返回的句柄
+     * @return 句柄是否仍有效；会话已超时或已注销时返回 false，调用方应重新登记
+     */
+    public boolean heartbeat(long handle) {
+        int slot = (int) handle;
+        int generation = (int) (handle >>> 32);
+        if (slot < 0 || slot >= lastSeen.length || generations.get(slot) != generation) return false;
+        touch(slot);
+        // 写入后再检查一次：期间槽位若被释放，本次心跳不算数
+        return generations.get(slot) == generation;
+    }
+
+    /**
+     * 注销会话（正常断开时调用，不触发回调）
+     *
+     * @param id 会话 id
+     * @return 是否已登记
+     */
+    public boolean unregister(String id) {
+        Integer slot = slots.get(id);
+        if (slot == null) return false;
+        return release(slot, id);
+    }
+
+    /**
+     * 扫描一次，分批回调超时的会话
+     *
+     * @return 超时的会话数
+     */
+    public int sweep() {
+        long start = System.nanoTime();
+        String[] batch = new String[Math.min(SWEEP_BATCH, lastSeen.length)];
+        int count = 0;
+        int total = 0;
+        for (int slot = 0, end = highWater; slot < end; slot++) {
+            String id = ids.get(slot);
+            if (id == null) continue;
+            long seen = (long) SLOTS.getOpaque(lastSeen, slot);
+            if (start - seen <= timeoutNanos) continue;
+            if (!releaseIfExpired(slot, id, start)) continue;
+            batch[count++] = id;
+            if (count == batch.length) {
+                total += dispatch(batch, count);
+                count = 0;
+            }
+        }
+        total += dispatch(batch, count);
+        lastSweepNanos = System.nanoTime() - start;
+        return total;
+    }
+
+    /**
+     * 以固定周期执行 {@link #sweep()}
+     *
+     * @param executor 清理线程
+     * @param period   周期
+     * @param unit     单位
+     * @return 可用于停止的 future
+     */
+    public ScheduledFuture<?> start(ScheduledExecutorService executor, long period, TimeUnit unit) {
+        return executor.scheduleWithFixedDelay(this::sweep, period, period, unit);
+    }
+
+    /**
+     * 已登记的会话数
+     *
+     * @return the int
+     */
+    public int size() {
+        return slots.size();
+    }
+
+    /**
+     * Capacity int.
+     *
+     * @return the int
+     */
+    public int capacity() {
+        return lastSeen.length;
+    }
+
+    /**
+     * 累计超时的会话数
+     *
+     * @return the long
+     */
+    public long getExpiredCount() {
+        return expired.sum();
+    }
+
+    /**
+     * 上一次扫描耗时（含回调）
+     *
+     * @return 纳秒
+     */
+    public long getLastSweepNanos() {
+        return lastSweepNanos;
+    }
+
+    private static long handle(int slot, int generation) {
+        return (long) generation << 32 | (slot & 0xFFFFFFFFL);
+    }
+
+    private void touch(int slot) {
+        SLOTS.setOpaque(lastSeen, slot, System.nanoTime());
+    }
+
+    private boolean release(int slot, String id) {
+        synchronized (freeSlots) {
+            if (!id.equals(ids.get(slot)) || !slots.remove(id, slot)) return false;
+            generations.incrementAndGet(slot);
+            ids.set(slot, null);
+            freeSlots[freeCount++] = slot;
+            return true;
+        }
+    }
+
+    private boolean releaseIfExpired(int slot, String id, long now) {
+        synchronized (freeSlots) {
+            // 加锁后再检查一次，避免与刚到达的心跳竞争
+            if (now - (long) SLOTS.getOpaque(lastSeen, slot) <= timeoutNanos) return false;
+            return release(slot, id);
+        }
+    }
+
+    private int dispatch(String[] batch, int count) {
+        for (int i = 0; i < count; i++) {
+            try {
+                onExpired.accept(batch[i]);
+            } catch (RuntimeException e) {
+                LOGGER.error("Inactive connection handler failed for {}", batch[i], e);
+            }
+            batch[i] = null;
+        }
+        expired.add(count);
+        return count;
+    }
+}
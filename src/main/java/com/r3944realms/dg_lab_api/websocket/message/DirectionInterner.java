@@ -0,0 +1,55 @@
+/*******************************************************************************
+ * Copyright (c) 2024-2025 R3944Realms. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.r3944realms.dg_lab_api.websocket.message;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.r3944realms.dg_lab_api.websocket.message.role.Role;
+import com.r3944realms.dg_lab_api.websocket.message.role.RoleInterner;
+
+import java.util.concurrent.ExecutionException;
+
+/**
+ * {@link MessageDirection} 共享池，以 (DirectType, 发送者名, 接收者名) 为键。
+ * 与 {@link RoleInterner} 相同，采用弱值缓存：方向仍被引用时同键查找返回同一实例，否则可被回收。
+ */
+final class DirectionInterner {
+    private static final Cache<Key, MessageDirection<Role, Role>> CACHE = CacheBuilder.newBuilder().weakValues().build();
+
+    private DirectionInterner() {}
+
+    static MessageDirection<Role, Role> intern(MessageDirection.DirectType type, String senderName, String receiverName) {
+        if (senderName == null || receiverName == null) return create(type, senderName, receiverName);
+        Key key = new Key(type, senderName, receiverName);
+        MessageDirection<Role, Role> direction = CACHE.getIfPresent(key);
+        if (direction != null) return direction;
+        try {
+            return CACHE.get(key, () -> create(type, senderName, receiverName));
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static MessageDirection<Role, Role> create(MessageDirection.DirectType type, String senderName, String receiverName) {
+        return new MessageDirection<>(
+                RoleInterner.intern(type.sender, senderName),
+                RoleInterner.intern(type.receiver, receiverName)
+        );
+    }
+
+    private record Key(MessageDirection.DirectType type, String senderName, String receiverName) {}
+}
@@ -20,13 +20,20 @@ package com.r3944realms.dg_lab_api.websocket.message;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.annotations.Expose;
+import com.r3944realms.dg_lab_api.websocket.message.codec.Utf8JsonEncoder;
 import com.r3944realms.dg_lab_api.websocket.message.data.IData;
+import com.r3944realms.dg_lab_api.websocket.message.data.PowerBoxData;
 import com.r3944realms.dg_lab_api.websocket.message.data.adapter.IDataTypeAdapterFactory;
+import com.r3944realms.dg_lab_api.websocket.message.data.adapter.PowerBoxDataCodec;
 import com.r3944realms.dg_lab_api.websocket.message.role.Role;
 import com.r3944realms.dg_lab_api.websocket.message.role.RoleDeserializer;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Serial;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 
 /**
  * 消息，带有方向和有效负载消息
@@ -47,6 +54,12 @@ public abstract class Message implements Serializable {
      * The Payload.
      */
     final IData payload;
+    private static final byte[] DIRECTION = Utf8JsonEncoder.encodeName("direction");
+    private static final byte[] PAYLOAD = Utf8JsonEncoder.encodeName("payload");
+    private static final byte[] SENDER = Utf8JsonEncoder.encodeName("sender");
+    private static final byte[] RECEIVER = Utf8JsonEncoder.encodeName("receiver");
+    private static final byte[] NAME = Utf8JsonEncoder.encodeName("name");
+    private static final byte[] TYPE = Utf8JsonEncoder.encodeName("type");
     static {
         GsonBuilder gsonBuilder = new GsonBuilder();
         gsonBuilder.registerTypeAdapter(Role.class, new RoleDeserializer());
@@ -108,6 +121,152 @@ public abstract class Message implements Serializable {
                 : getInvalidMessageJson();
     }
 
+    /**
+     * 无效信息返回（UTF-8）
+     *
+     * @return Json invalid message json bytes
+     */
+    protected byte[] getInvalidMessageJsonBytes() {
+        return getInvalidMessageJson().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 将 {@link #getDataJson(boolean)} 的结果直接以 UTF-8 写入缓冲区，不生成中间字符串
+     *
+     * @param buffer 目标缓冲区（从当前 position 开始写入）
+     * @return 写入的字节数
+     * @throws java.nio.BufferOverflowException 缓冲区空间不足
+     */
+    public int writeDataJson(ByteBuffer buffer) {
+        return writeDataJson(buffer, false);
+    }
+
+    /**
+     * 将 {@link #getDataJson(boolean)} 的结果直接以 UTF-8 写入缓冲区，不生成中间字符串
+     *
+     * @param buffer 目标缓冲区（从当前 position 开始写入）
+     * @param isFix  the is fix
+     * @return 写入的字节数
+     * @throws java.nio.BufferOverflowException 缓冲区空间不足
+     */
+    public int writeDataJson(ByteBuffer buffer, boolean isFix) {
+        int start = buffer.position();
+        if(payload == null || !payload.isValid()) {
+            Utf8JsonEncoder.writeRaw(buffer, getInvalidMessageJsonBytes());
+        } else {
+            writePayloadJson(buffer, isFix);
+        }
+        return buffer.position() - start;
+    }
+
+    /**
+     * 将 {@link #getMsgJson(boolean)} 的结果直接以 UTF-8 写入缓冲区，不生成中间字符串
+     *
+     * @param buffer 目标缓冲区（从当前 position 开始写入）
+     * @param isFix  the is fix
+     * @return 写入的字节数
+     * @throws java.nio.BufferOverflowException 缓冲区空间不足
+     */
+    public int writeMsgJson(ByteBuffer buffer, boolean isFix) {
+        int start = buffer.position();
+        if(payload == null && direction == null) {
+            Utf8JsonEncoder.writeRaw(buffer, getInvalidMessageJsonBytes());
+            return buffer.position() - start;
+        }
+        buffer.put((byte) '{');
+        // 与 Gson 反射顺序一致：子类字段在前
+        boolean first = writeMsgJsonFields(buffer, isFix, true);
+        if(direction != null) {
+            if(!first) buffer.put((byte) ',');
+            buffer.put(DIRECTION);
+            writeDirection(buffer, direction, isFix);
+            first = false;
+        }
+        if(payload != null) {
+            if(!first) buffer.put((byte) ',');
+            buffer.put(PAYLOAD);
+            writePayloadJson(buffer, isFix);
+        }
+        buffer.put((byte) '}');
+        return buffer.position() - start;
+    }
+
+    /**
+     * 将 {@link #getDataJson(boolean)} 的结果以 UTF-8 写入输出流
+     *
+     * @param out   输出流
+     * @param isFix the is fix
+     * @throws IOException the io exception
+     */
+    public void writeTo(OutputStream out, boolean isFix) throws IOException {
+        Utf8JsonEncoder.writeTo(out, buffer -> writeDataJson(buffer, isFix));
+    }
+
+    /**
+     * 将 {@link #getDataJson()} 的结果以 UTF-8 写入输出流
+     *
+     * @param out 输出流
+     * @throws IOException the io exception
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        writeTo(out, false);
+    }
+
+    /**
+     * 写入子类自身的字段，位于 direction 和 payload 之前
+     *
+     * @param buffer 目标缓冲区
+     * @param isFix  the is fix
+     * @param first  当前是否尚未写入任何字段
+     * @return 写入后是否仍未写入任何字段
+     */
+    protected boolean writeMsgJsonFields(ByteBuffer buffer, boolean isFix, boolean first) {
+        return first;
+    }
+
+    /**
+     * 写入负载
+     *
+     * @param buffer 目标缓冲区
+     * @param isFix  the is fix
+     */
+    protected void writePayloadJson(ByteBuffer buffer, boolean isFix) {
+        if(payload instanceof PowerBoxData data) {
+            PowerBoxDataCodec.write(buffer, data, isFix);
+        } else {
+            String json = gson.toJson(payload);
+            Utf8JsonEncoder.writeRaw(buffer, isFix ? json.replace("\\","") : json);
+        }
+    }
+
+    private static void writeDirection(ByteBuffer buffer, MessageDirection<?, ?> direction, boolean isFix) {
+        buffer.put((byte) '{');
+        boolean first = true;
+        if(direction.sender() != null) {
+            buffer.put(SENDER);
+            writeRole(buffer, direction.sender(), isFix);
+            first = false;
+        }
+        if(direction.receiver() != null) {
+            if(!first) buffer.put((byte) ',');
+            buffer.put(RECEIVER);
+            writeRole(buffer, direction.receiver(), isFix);
+        }
+        buffer.put((byte) '}');
+    }
+
+    private static void writeRole(ByteBuffer buffer, Role role, boolean isFix) {
+        buffer.put((byte) '{');
+        if(role.getName() != null) {
+            buffer.put(NAME);
+            Utf8JsonEncoder.writeString(buffer, role.getName(), isFix);
+            buffer.put((byte) ',');
+        }
+        buffer.put(TYPE);
+        Utf8JsonEncoder.writeString(buffer, role.type.name(), isFix);
+        buffer.put((byte) '}');
+    }
+
     /**
      * Gets msg json.
      *
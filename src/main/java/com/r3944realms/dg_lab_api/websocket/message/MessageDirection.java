@@ -17,6 +17,7 @@
 package com.r3944realms.dg_lab_api.websocket.message;
 
 import com.r3944realms.dg_lab_api.websocket.message.role.*;
+import com.r3944realms.dg_lab_api.websocket.message.role.type.RoleType;
 
 import java.io.Serializable;
 
@@ -31,7 +32,7 @@ public record MessageDirection<T extends Role, K extends Role>(T sender, K recei
     @Override
     public String toString() {
         return
-                "MessageDirection:[ " + sender.type + " -> " + receiver.type + " ] {" + sender.name + " -> " + receiver.name + "}";
+                "MessageDirection:[ " + sender.type + " -> " + receiver.type + " ] {" + sender.getName() + " -> " + receiver.getName() + "}";
     }
 
     /**
@@ -63,6 +64,19 @@ public record MessageDirection<T extends Role, K extends Role>(T sender, K recei
         };
     }
 
+    /**
+     * 获取共享的消息方向，其角色来自 {@link RoleInterner}，不可改名。<br/>
+     * 适用于已知会话之间的频繁发送：方向仍被引用时，同键查找返回同一实例而不再创建角色。
+     *
+     * @param type         the type
+     * @param senderName   the sender name
+     * @param receiverName the receiver name
+     * @return 共享的消息方向
+     */
+    public static MessageDirection<? extends Role, ? extends Role> intern(final DirectType type, final String senderName, final String receiverName) {
+        return DirectionInterner.intern(type, senderName, receiverName);
+    }
+
     /**
      * The enum Direct type.
      */
@@ -70,66 +84,80 @@ public record MessageDirection<T extends Role, K extends Role>(T sender, K recei
         /**
          * Placeholder to placeholder direct type.
          */
-        PLACEHOLDER_TO_PLACEHOLDER,
+        PLACEHOLDER_TO_PLACEHOLDER(RoleType.PLACEHOLDER, RoleType.PLACEHOLDER),
         /**
          * Placeholder to client direct type.
          */
-        PLACEHOLDER_TO_CLIENT,
+        PLACEHOLDER_TO_CLIENT(RoleType.PLACEHOLDER, RoleType.T_CLIENT),
         /**
          * Placeholder to server direct type.
          */
-        PLACEHOLDER_TO_SERVER,
+        PLACEHOLDER_TO_SERVER(RoleType.PLACEHOLDER, RoleType.T_SERVER),
         /**
          * Placeholder to application direct type.
          */
-        PLACEHOLDER_TO_APPLICATION,
+        PLACEHOLDER_TO_APPLICATION(RoleType.PLACEHOLDER, RoleType.APPLICATION),
         /**
          * Client to placeholder direct type.
          */
-        CLIENT_TO_PLACEHOLDER,
+        CLIENT_TO_PLACEHOLDER(RoleType.T_CLIENT, RoleType.PLACEHOLDER),
         /**
          * Client to client direct type.
          */
-        CLIENT_TO_CLIENT,
+        CLIENT_TO_CLIENT(RoleType.T_CLIENT, RoleType.T_CLIENT),
         /**
          * Client to server direct type.
          */
-        CLIENT_TO_SERVER,
+        CLIENT_TO_SERVER(RoleType.T_CLIENT, RoleType.T_SERVER),
         /**
          * Client to application direct type.
          */
-        CLIENT_TO_APPLICATION,
+        CLIENT_TO_APPLICATION(RoleType.T_CLIENT, RoleType.APPLICATION),
         /**
          * Server to placeholder direct type.
          */
-        SERVER_TO_PLACEHOLDER,
+        SERVER_TO_PLACEHOLDER(RoleType.T_SERVER, RoleType.PLACEHOLDER),
         /**
          * Server to client direct type.
          */
-        SERVER_TO_CLIENT,
+        SERVER_TO_CLIENT(RoleType.T_SERVER, RoleType.T_CLIENT),
         /**
          * Server to application direct type.
          */
-        SERVER_TO_APPLICATION,
+        SERVER_TO_APPLICATION(RoleType.T_SERVER, RoleType.APPLICATION),
         /**
          * Server to server direct type.
          */
-        SERVER_TO_SERVER,
+        SERVER_TO_SERVER(RoleType.T_SERVER, RoleType.T_SERVER),
         /**
          * Application to placeholder direct type.
          */
-        APPLICATION_TO_PLACEHOLDER,
+        APPLICATION_TO_PLACEHOLDER(RoleType.APPLICATION, RoleType.PLACEHOLDER),
         /**
          * Application to client direct type.
          */
-        APPLICATION_TO_CLIENT,
+        APPLICATION_TO_CLIENT(RoleType.APPLICATION, RoleType.T_CLIENT),
         /**
          * Application to application direct type.
          */
-        APPLICATION_TO_APPLICATION,
+        APPLICATION_TO_APPLICATION(RoleType.APPLICATION, RoleType.APPLICATION),
         /**
          * Application to server direct type.
          */
-        APPLICATION_TO_SERVER;
+        APPLICATION_TO_SERVER(RoleType.APPLICATION, RoleType.T_SERVER);
+
+        /**
+         * 发送者类型
+         */
+        public final RoleType sender;
+        /**
+         * 接收者类型
+         */
+        public final RoleType receiver;
+
+        DirectType(RoleType sender, RoleType receiver) {
+            this.sender = sender;
+            this.receiver = receiver;
+        }
     }
 }
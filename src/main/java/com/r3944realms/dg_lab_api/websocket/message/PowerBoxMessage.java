@@ -17,6 +17,7 @@
 package com.r3944realms.dg_lab_api.websocket.message;
 
 import com.google.gson.JsonSyntaxException;
+import com.r3944realms.dg_lab_api.websocket.message.codec.Utf8JsonEncoder;
 import com.r3944realms.dg_lab_api.websocket.message.data.PowerBoxData;
 import com.r3944realms.dg_lab_api.websocket.message.data.PowerBoxDataWithAttachment;
 import com.r3944realms.dg_lab_api.websocket.message.data.PowerBoxDataWithSingleAttachment;
@@ -25,6 +26,9 @@ import com.r3944realms.dg_lab_api.websocket.message.data.type.PowerBoxStatusCode
 import com.r3944realms.dg_lab_api.websocket.message.role.PlaceholderRole;
 import com.r3944realms.dg_lab_api.websocket.message.role.Role;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
 /**
  * The type Power box message.
  */
@@ -39,6 +43,8 @@ public class PowerBoxMessage extends Message {
      * The Invalid message json.
      */
     static final String INVALID_MESSAGE_JSON = gson.toJson(PowerBoxData.createPowerBoxData("error","","",""));
+    private static final byte[] INVALID_MESSAGE_JSON_BYTES = INVALID_MESSAGE_JSON.getBytes(StandardCharsets.UTF_8);
+    private static final byte[] COMMAND_TYPE = Utf8JsonEncoder.encodeName("commandType");
 
     /**
      * Instantiates a new Power box message.
@@ -171,6 +177,19 @@ public class PowerBoxMessage extends Message {
         return INVALID_MESSAGE_JSON;
     }
 
+    @Override
+    protected byte[] getInvalidMessageJsonBytes() {
+        return INVALID_MESSAGE_JSON_BYTES;
+    }
+
+    @Override
+    protected boolean writeMsgJsonFields(ByteBuffer buffer, boolean isFix, boolean first) {
+        if(commandType == null) return first;
+        buffer.put(COMMAND_TYPE);
+        Utf8JsonEncoder.writeString(buffer, commandType.name(), isFix);
+        return false;
+    }
+
     @Override
     public PowerBoxMessage readJsonReturnMessage(String dataJson, MessageDirection<?, ?> messageDirection) throws JsonSyntaxException {
         return new PowerBoxMessage(getPayload(dataJson), messageDirection);
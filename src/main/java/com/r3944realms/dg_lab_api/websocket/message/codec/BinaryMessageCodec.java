@@ -0,0 +1,354 @@
+/*******************************************************************************
+ * Copyright (c) 2024-2025 R3944Realms. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.r3944realms.dg_lab_api.websocket.message.codec;
+
+import com.r3944realms.dg_lab_api.message.data.HexCodec;
+import com.r3944realms.dg_lab_api.websocket.message.MessageDirection;
+import com.r3944realms.dg_lab_api.websocket.message.PowerBoxMessage;
+import com.r3944realms.dg_lab_api.websocket.message.data.PowerBoxData;
+import com.r3944realms.dg_lab_api.websocket.message.data.PowerBoxDataWithAttachment;
+import com.r3944realms.dg_lab_api.websocket.message.data.PowerBoxDataWithSingleAttachment;
+import com.r3944realms.dg_lab_api.websocket.message.data.type.PowerBoxDataType;
+import com.r3944realms.dg_lab_api.websocket.message.role.Role;
+import com.r3944realms.dg_lab_api.websocket.message.role.type.RoleType;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * {@link PowerBoxMessage} 二进制编解码，用于服务器之间转发<br/>
+ * 格式（版本 1）：
+ * <pre>
+ * magic(1) version(1) commandType(1) flags(1)
+ * [sender: roleType(1) name(str)] [receiver: roleType(1) name(str)]   // flags 含 DIRECTION 时
+ * type(str) clientId(str) targetId(str) body
+ * [timer(int)] | [timer_A(int) timer_B(int)]                          // 由 flags 的附加类型决定
+ * </pre>
+ * <ul>
+ * <li>str：varint(UTF-8 字节数 + 1)，0 表示 null，随后为 UTF-8 字节（不成对的代理字符写为 ?）</li>
+ * <li>int：varint(zigzag(值) + 1)，0 表示 null</li>
+ * <li>枚举（commandType、roleType）：ordinal + 1，0 表示 null</li>
+ * <li>body：标记(1) 后为 str（原文），或规范形式的波形指令
+ * <code>pulse-X:["XXXXXXXXXXXXXXXX",...]</code>（大写16进制）时为 通道(1) varint(段数) 每段8字节</li>
+ * </ul>
+ * 解码结果的 {@link com.r3944realms.dg_lab_api.websocket.message.Message#getMsgJson()} 与原消息一致；commandType 由负载重新计算。
+ * 解码从 {@link ByteBuffer} 的 position 读到消息结束，可直接作用于切片。
+ */
+public final class BinaryMessageCodec {
+    /**
+     * 魔数
+     */
+    public static final byte MAGIC = (byte) 0xDB;
+    /**
+     * 当前版本
+     */
+    public static final byte VERSION = 1;
+
+    private static final int KIND_MASK = 0x03;
+    private static final int KIND_PLAIN = 0;
+    private static final int KIND_SINGLE_ATTACHMENT = 1;
+    private static final int KIND_ATTACHMENT = 2;
+    private static final int FLAG_DIRECTION = 0x04;
+    private static final int BODY_TEXT = 0;
+    private static final int BODY_PULSE = 1;
+    /**
+     * <code>pulse-X:[</code>
+     */
+    private static final int PULSE_PREFIX_LENGTH = 9;
+    /**
+     * <code>"XXXXXXXXXXXXXXXX",</code>
+     */
+    private static final int PULSE_FRAME_STRIDE = HexCodec.FRAME_LENGTH + 3;
+    private static final PowerBoxDataType[] COMMAND_TYPES = PowerBoxDataType.values();
+    private static final RoleType[] ROLE_TYPES = RoleType.values();
+
+    private BinaryMessageCodec() {}
+
+    /**
+     * 编码到缓冲区
+     *
+     * @param message 消息
+     * @param buffer  目标缓冲区（从当前 position 开始写入）
+     * @return 写入的字节数
+     * @throws java.nio.BufferOverflowException 缓冲区空间不足
+     */
+    @SuppressWarnings("deprecation")
+    public static int encode(PowerBoxMessage message, ByteBuffer buffer) {
+        int start = buffer.position();
+        PowerBoxData payload = message.getPayload();
+        MessageDirection<?, ?> direction = message.direction;
+        int kind = payload instanceof PowerBoxDataWithAttachment ? KIND_ATTACHMENT
+                : payload instanceof PowerBoxDataWithSingleAttachment ? KIND_SINGLE_ATTACHMENT : KIND_PLAIN;
+        buffer.put(MAGIC).put(VERSION)
+                .put((byte) (message.commandType == null ? 0 : message.commandType.ordinal() + 1))
+                .put((byte) (kind | (direction != null ? FLAG_DIRECTION : 0)));
+        if (direction != null) {
+            writeRole(buffer, direction.sender());
+            writeRole(buffer, direction.receiver());
+        }
+        writeString(buffer, payload.getType());
+        writeString(buffer, payload.getClientId());
+        writeString(buffer, payload.getTargetId());
+        writeBody(buffer, payload.getMessage());
+        if (payload instanceof PowerBoxDataWithAttachment attachment) {
+            writeNullableInt(buffer, attachment.getTimerA());
+            writeNullableInt(buffer, attachment.getTimerB());
+        } else if (payload instanceof PowerBoxDataWithSingleAttachment attachment) {
+            writeNullableInt(buffer, attachment.getTimer());
+        }
+        return buffer.position() - start;
+    }
+
+    /**
+     * 编码为字节数组
+     *
+     * @param message 消息
+     * @return the byte [ ]
+     */
+    public static byte[] encode(PowerBoxMessage message) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            Utf8JsonEncoder.writeTo(out, buffer -> encode(message, buffer));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * 从缓冲区解码，position 前进到消息结束处
+     *
+     * @param buffer 源缓冲区
+     * @return 消息
+     * @throws IllegalArgumentException          魔数、版本或枚举值不正确
+     * @throws java.nio.BufferUnderflowException 数据不完整
+     */
+    @SuppressWarnings("deprecation")
+    public static PowerBoxMessage decode(ByteBuffer buffer) {
+        if (buffer.get() != MAGIC) throw new IllegalArgumentException("Not a binary PowerBox message");
+        byte version = buffer.get();
+        if (version != VERSION) throw new IllegalArgumentException("Unsupported binary message version: " + version);
+        readEnum(buffer, COMMAND_TYPES);
+        int flags = buffer.get();
+        MessageDirection<?, ?> direction = null;
+        if ((flags & FLAG_DIRECTION) != 0) {
+            Role sender = readRole(buffer);
+            Role receiver = readRole(buffer);
+            direction = new MessageDirection<>(sender, receiver);
+        }
+        String type = readString(buffer);
+        String clientId = readString(buffer);
+        String targetId = readString(buffer);
+        String body = readBody(buffer);
+        PowerBoxData payload = new PowerBoxData(type, clientId, targetId, body);
+        payload = switch (flags & KIND_MASK) {
+            case KIND_PLAIN -> payload;
+            case KIND_SINGLE_ATTACHMENT -> new PowerBoxDataWithSingleAttachment(payload, readNullableInt(buffer));
+            case KIND_ATTACHMENT -> new PowerBoxDataWithAttachment(payload, readNullableInt(buffer), readNullableInt(buffer));
+            default -> throw new IllegalArgumentException("Unknown payload kind: " + (flags & KIND_MASK));
+        };
+        return new PowerBoxMessage(payload, direction);
+    }
+
+    /**
+     * 从字节数组解码
+     *
+     * @param bytes 源字节
+     * @return 消息
+     */
+    public static PowerBoxMessage decode(byte[] bytes) {
+        return decode(ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * 读取指令类型而不解码整条消息，不改变 position
+     *
+     * @param buffer 源缓冲区（position 处为消息开头）
+     * @return 指令类型，可能为 null
+     * @throws IllegalArgumentException 魔数、版本或枚举值不正确
+     */
+    @Nullable
+    public static PowerBoxDataType peekCommandType(ByteBuffer buffer) {
+        int position = buffer.position();
+        if (buffer.get(position) != MAGIC) throw new IllegalArgumentException("Not a binary PowerBox message");
+        byte version = buffer.get(position + 1);
+        if (version != VERSION) throw new IllegalArgumentException("Unsupported binary message version: " + version);
+        return enumAt(buffer.get(position + 2) & 0xFF, COMMAND_TYPES);
+    }
+
+    private static void writeRole(ByteBuffer buffer, @Nullable Role role) {
+        if (role == null) {
+            buffer.put((byte) 0);
+            return;
+        }
+        buffer.put((byte) (role.type == null ? 0 : role.type.ordinal() + 1));
+        writeString(buffer, role.getName());
+    }
+
+    @Nullable
+    private static Role readRole(ByteBuffer buffer) {
+        RoleType type = readEnum(buffer, ROLE_TYPES);
+        return type == null ? null : Role.create(type, readString(buffer));
+    }
+
+    private static void writeBody(ByteBuffer buffer, @Nullable String message) {
+        int frames = canonicalPulseFrames(message);
+        if (frames < 0) {
+            buffer.put((byte) BODY_TEXT);
+            writeString(buffer, message);
+            return;
+        }
+        buffer.put((byte) BODY_PULSE).put((byte) message.charAt(6));
+        writeVarint(buffer, frames);
+        for (int i = 0, pos = PULSE_PREFIX_LENGTH + 1; i < frames; i++, pos += PULSE_FRAME_STRIDE) {
+            buffer.putLong(HexCodec.decodeRaw(message, pos));
+        }
+    }
+
+    private static String readBody(ByteBuffer buffer) {
+        int tag = buffer.get();
+        if (tag == BODY_TEXT) return readString(buffer);
+        if (tag != BODY_PULSE) throw new IllegalArgumentException("Unknown message body: " + tag);
+        char channel = (char) buffer.get();
+        int frames = readVarint(buffer);
+        // 先按剩余字节校验段数，避免按不可信的长度分配
+        if (frames > buffer.remaining() / Long.BYTES) throw new BufferUnderflowException();
+        char[] chars = new char[PULSE_PREFIX_LENGTH + (frames == 0 ? 1 : frames * PULSE_FRAME_STRIDE)];
+        "pulse-".getChars(0, 6, chars, 0);
+        chars[6] = channel;
+        chars[7] = ':';
+        chars[8] = '[';
+        int pos = PULSE_PREFIX_LENGTH;
+        for (int i = 0; i < frames; i++) {
+            if (i > 0) chars[pos++] = ',';
+            chars[pos++] = '"';
+            HexCodec.encode(buffer.getLong(), chars, pos);
+            pos += HexCodec.FRAME_LENGTH;
+            chars[pos++] = '"';
+        }
+        chars[pos] = ']';
+        return new String(chars);
+    }
+
+    /**
+     * 规范形式的波形指令的段数，非规范形式为 -1
+     */
+    private static int canonicalPulseFrames(@Nullable String message) {
+        if (message == null || message.length() < PULSE_PREFIX_LENGTH + 1 || !message.startsWith("pulse-")) return -1;
+        char channel = message.charAt(6);
+        if ((channel != 'A' && channel != 'B') || message.charAt(7) != ':' || message.charAt(8) != '[') return -1;
+        int length = message.length();
+        if (message.charAt(length - 1) != ']') return -1;
+        int inner = length - PULSE_PREFIX_LENGTH - 1;
+        if (inner == 0) return 0;
+        if ((inner + 1) % PULSE_FRAME_STRIDE != 0) return -1;
+        int frames = (inner + 1) / PULSE_FRAME_STRIDE;
+        for (int i = 0, pos = PULSE_PREFIX_LENGTH; i < frames; i++, pos += PULSE_FRAME_STRIDE) {
+            if (message.charAt(pos) != '"' || message.charAt(pos + HexCodec.FRAME_LENGTH + 1) != '"') return -1;
+            if (i + 1 < frames && message.charAt(pos + HexCodec.FRAME_LENGTH + 2) != ',') return -1;
+            for (int j = pos + 1, end = pos + 1 + HexCodec.FRAME_LENGTH; j < end; j++) {
+                char c = message.charAt(j);
+                if ((c < '0' || c > '9') && (c < 'A' || c > 'F')) return -1;
+            }
+        }
+        return frames;
+    }
+
+    private static void writeString(ByteBuffer buffer, @Nullable String value) {
+        if (value == null) {
+            buffer.put((byte) 0);
+            return;
+        }
+        writeVarint(buffer, Utf8JsonEncoder.utf8Length(value) + 1);
+        Utf8JsonEncoder.writeRaw(buffer, value);
+    }
+
+    @Nullable
+    private static String readString(ByteBuffer buffer) {
+        int length = readVarint(buffer) - 1;
+        if (length < 0) return null;
+        if (length > buffer.remaining()) throw new BufferUnderflowException();
+        String value;
+        if (buffer.hasArray()) {
+            value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+        } else {
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return value;
+    }
+
+    private static void writeNullableInt(ByteBuffer buffer, @Nullable Integer value) {
+        if (value == null) {
+            buffer.put((byte) 0);
+            return;
+        }
+        int v = value;
+        writeVarint(buffer, ((long) ((v << 1) ^ (v >> 31)) & 0xFFFFFFFFL) + 1);
+    }
+
+    @Nullable
+    private static Integer readNullableInt(ByteBuffer buffer) {
+        long raw = readVarintLong(buffer);
+        if (raw == 0) return null;
+        int zigzag = (int) (raw - 1);
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+
+    private static void writeVarint(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private static int readVarint(ByteBuffer buffer) {
+        long value = readVarintLong(buffer);
+        if (value > Integer.MAX_VALUE) throw new IllegalArgumentException("Varint too large: " + value);
+        return (int) value;
+    }
+
+    private static long readVarintLong(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+
+    @Nullable
+    private static <E extends Enum<E>> E readEnum(ByteBuffer buffer, E[] values) {
+        return enumAt(buffer.get() & 0xFF, values);
+    }
+
+    @Nullable
+    private static <E extends Enum<E>> E enumAt(int tag, E[] values) {
+        if (tag == 0) return null;
+        if (tag > values.length) throw new IllegalArgumentException("Unknown " + values[0].getDeclaringClass().getSimpleName() + " ordinal: " + (tag - 1));
+        return values[tag - 1];
+    }
+}
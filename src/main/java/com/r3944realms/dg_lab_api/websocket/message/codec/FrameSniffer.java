@@ -0,0 +1,424 @@
+/*******************************************************************************
+ * Copyright (c) 2024-2025 R3944Realms. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.r3944realms.dg_lab_api.websocket.message.codec;
+
+import com.r3944realms.dg_lab_api.websocket.message.data.type.PowerBoxDataType;
+import com.r3944realms.dg_lab_api.websocket.message.data.type.PowerBoxStatusCode;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 原始 JSON 帧的类型嗅探，不经 Gson 反序列化即可得到 {@link PowerBoxDataType} 与 clientId 的位置<br/>
+ * 只扫描顶层对象，关注 "type"、"clientId" 与 "message"，其余字段的值直接跳过，
+ * 使心跳、错误等消息可以跳过完整解码。结果与 {@link com.r3944realms.dg_lab_api.websocket.message.data.PowerBoxData#getCommandType()} 一致。<br/>
+ * 实例可复用但非线程安全，建议每个连接或线程持有一个；嗅探过程不产生对象。
+ * 遇到需关注的字段含转义字符、重复出现（Gson 取最后一个值）、键名含转义或帧格式不合法时返回 {@code false}，调用方应回退到完整解码。
+ * 字节输入按 UTF-8 处理，位置均为字节下标。
+ */
+public final class FrameSniffer {
+    private static final int TYPE_HEARTBEAT = 0;
+    private static final int TYPE_BIND = 1;
+    private static final int TYPE_BREAK = 2;
+    private static final int TYPE_ERROR = 3;
+    private static final int TYPE_MSG = 4;
+    private static final int TYPE_CLIENT_MSG = 5;
+    private static final int TYPE_OTHER = 6;
+    private static final int NOT_FOUND = -1;
+
+    private static final int KEY_TYPE = 1;
+    private static final int KEY_CLIENT_ID = 1 << 1;
+    private static final int KEY_MESSAGE = 1 << 2;
+
+    private static final int BYTES = 0;
+    private static final int BUFFER = 1;
+    private static final int CHARS = 2;
+
+    private int kind;
+    private byte[] bytes;
+    private ByteBuffer buffer;
+    private CharSequence chars;
+    private int end;
+
+    @Nullable
+    private PowerBoxDataType type;
+    private int clientIdStart = NOT_FOUND;
+    private int clientIdEnd = NOT_FOUND;
+    private int messageStart = NOT_FOUND;
+    private int messageEnd = NOT_FOUND;
+
+    /**
+     * 嗅探字节帧
+     *
+     * @param frame UTF-8 JSON
+     * @return 是否成功
+     */
+    public boolean sniff(byte[] frame) {
+        return sniff(frame, 0, frame.length);
+    }
+
+    /**
+     * 嗅探字节帧的一段
+     *
+     * @param frame  UTF-8 JSON
+     * @param offset 起始下标
+     * @param length 长度
+     * @return 是否成功
+     */
+    public boolean sniff(byte[] frame, int offset, int length) {
+        reset(BYTES);
+        bytes = frame;
+        end = offset + length;
+        return scan(offset);
+    }
+
+    /**
+     * 嗅探 {@link ByteBuffer} 中 position 到 limit 的内容，不改变其 position；位置为缓冲区的绝对下标
+     *
+     * @param frame UTF-8 JSON
+     * @return 是否成功
+     */
+    public boolean sniff(ByteBuffer frame) {
+        reset(BUFFER);
+        buffer = frame;
+        end = frame.limit();
+        return scan(frame.position());
+    }
+
+    /**
+     * 嗅探文本帧
+     *
+     * @param frame JSON
+     * @return 是否成功
+     */
+    public boolean sniff(CharSequence frame) {
+        reset(CHARS);
+        chars = frame;
+        end = frame.length();
+        return scan(0);
+    }
+
+    /**
+     * 上次嗅探得到的类型
+     *
+     * @return 类型，未成功时为 null
+     */
+    @Nullable
+    public PowerBoxDataType type() {
+        return type;
+    }
+
+    /**
+     * 是否找到 clientId
+     *
+     * @return the boolean
+     */
+    public boolean hasClientId() {
+        return clientIdStart != NOT_FOUND;
+    }
+
+    /**
+     * clientId 值的起始下标（不含引号）
+     *
+     * @return 下标，未找到时为 -1
+     */
+    public int clientIdStart() {
+        return clientIdStart;
+    }
+
+    /**
+     * clientId 值的结束下标（不含）
+     *
+     * @return 下标，未找到时为 -1
+     */
+    public int clientIdEnd() {
+        return clientIdEnd;
+    }
+
+    /**
+     * 取出 clientId
+     *
+     * @return clientId，未找到时为 null
+     */
+    @Nullable
+    public String clientId() {
+        return hasClientId() ? slice(clientIdStart, clientIdEnd) : null;
+    }
+
+    /**
+     * 不取出字符串而比较 clientId
+     *
+     * @param expected 期望值
+     * @return 是否相等
+     */
+    public boolean clientIdEquals(@Nullable CharSequence expected) {
+        if (!hasClientId() || expected == null) return false;
+        if (kind != CHARS && !isAscii(clientIdStart, clientIdEnd)) return expected.toString().equals(clientId());
+        return regionEquals(clientIdStart, clientIdEnd, expected);
+    }
+
+    /**
+     * 是否找到 message
+     *
+     * @return the boolean
+     */
+    public boolean hasMessage() {
+        return messageStart != NOT_FOUND;
+    }
+
+    /**
+     * message 值的起始下标（不含引号）
+     *
+     * @return 下标，未找到时为 -1
+     */
+    public int messageStart() {
+        return messageStart;
+    }
+
+    /**
+     * message 值的结束下标（不含）
+     *
+     * @return 下标，未找到时为 -1
+     */
+    public int messageEnd() {
+        return messageEnd;
+    }
+
+    /**
+     * 取出 message 的原始内容（不处理转义）
+     *
+     * @return message，未找到时为 null
+     */
+    @Nullable
+    public String message() {
+        return hasMessage() ? slice(messageStart, messageEnd) : null;
+    }
+
+    /**
+     * 不取出字符串而将 message 解析为状态码
+     *
+     * @return 状态码，未找到或不是状态码时为 {@link PowerBoxStatusCode#INVALID_STATUS_CODE}
+     */
+    public PowerBoxStatusCode statusCode() {
+        if (!hasMessage() || messageEnd - messageStart != 3) return PowerBoxStatusCode.INVALID_STATUS_CODE;
+        int value = 0;
+        for (int i = messageStart; i < messageEnd; i++) {
+            int digit = at(i) - '0';
+            if (digit < 0 || digit > 9) return PowerBoxStatusCode.INVALID_STATUS_CODE;
+            value = value * 10 + digit;
+        }
+        return PowerBoxStatusCode.getStatusCode(value);
+    }
+
+    private void reset(int kind) {
+        this.kind = kind;
+        bytes = null;
+        buffer = null;
+        chars = null;
+        type = null;
+        clientIdStart = clientIdEnd = NOT_FOUND;
+        messageStart = messageEnd = NOT_FOUND;
+    }
+
+    private int at(int index) {
+        return switch (kind) {
+            case BYTES -> bytes[index] & 0xFF;
+            case BUFFER -> buffer.get(index) & 0xFF;
+            default -> chars.charAt(index);
+        };
+    }
+
+    private boolean scan(int index) {
+        int rawType = NOT_FOUND;
+        int seen = 0;
+        int i = skipWhitespace(index);
+        if (i >= end || at(i) != '{') return false;
+        i = skipWhitespace(i + 1);
+        if (i < end && at(i) == '}') return false;
+        while (i < end) {
+            if (at(i) != '"') return false;
+            int keyStart = i + 1;
+            int keyEnd = stringEnd(keyStart);
+            if (keyEnd < 0 || hasEscape(keyStart, keyEnd)) return false;
+            int key = trackedKey(keyStart, keyEnd);
+            if ((seen & key) != 0) return false;
+            seen |= key;
+            i = skipWhitespace(keyEnd + 1);
+            if (i >= end || at(i) != ':') return false;
+            i = skipWhitespace(i + 1);
+            if (i >= end) return false;
+            if (at(i) == '"') {
+                int valueStart = i + 1;
+                int valueEnd = stringEnd(valueStart);
+                if (valueEnd < 0) return false;
+                if (key == KEY_TYPE) {
+                    if (hasEscape(valueStart, valueEnd)) return false;
+                    rawType = matchType(valueStart, valueEnd);
+                } else if (key == KEY_CLIENT_ID) {
+                    if (hasEscape(valueStart, valueEnd)) return false;
+                    clientIdStart = valueStart;
+                    clientIdEnd = valueEnd;
+                } else if (key == KEY_MESSAGE) {
+                    messageStart = valueStart;
+                    messageEnd = valueEnd;
+                }
+                i = valueEnd + 1;
+            } else {
+                if (key == KEY_TYPE) return false;
+                i = skipValue(i);
+                if (i < 0) return false;
+            }
+            i = skipWhitespace(i);
+            if (i >= end) return false;
+            int c = at(i);
+            if (c == '}') break;
+            if (c != ',') return false;
+            i = skipWhitespace(i + 1);
+        }
+        if (rawType == NOT_FOUND) return false;
+        type = switch (rawType) {
+            case TYPE_HEARTBEAT -> PowerBoxDataType._NC_HEARTBEAT_;
+            case TYPE_BIND -> PowerBoxDataType._NC_BIND_;
+            case TYPE_BREAK -> PowerBoxDataType._NC_BREAK_;
+            case TYPE_ERROR -> PowerBoxDataType._NC_ERROR_;
+            case TYPE_MSG -> messageStart == NOT_FOUND ? PowerBoxDataType.UNKNOWN : commandType(messageStart, messageEnd);
+            case TYPE_CLIENT_MSG -> PowerBoxDataType.CLIENT_MESSAGE;
+            default -> PowerBoxDataType.UNKNOWN;
+        };
+        return type != null;
+    }
+
+    private int trackedKey(int start, int endExclusive) {
+        if (regionEquals(start, endExclusive, "type")) return KEY_TYPE;
+        if (regionEquals(start, endExclusive, "clientId")) return KEY_CLIENT_ID;
+        if (regionEquals(start, endExclusive, "message")) return KEY_MESSAGE;
+        return 0;
+    }
+
+    private int matchType(int start, int endExclusive) {
+        if (regionEquals(start, endExclusive, "heartbeat")) return TYPE_HEARTBEAT;
+        if (regionEquals(start, endExclusive, "msg")) return TYPE_MSG;
+        if (regionEquals(start, endExclusive, "bind")) return TYPE_BIND;
+        if (regionEquals(start, endExclusive, "error")) return TYPE_ERROR;
+        if (regionEquals(start, endExclusive, "break")) return TYPE_BREAK;
+        if (regionEquals(start, endExclusive, "clientMsg")) return TYPE_CLIENT_MSG;
+        return TYPE_OTHER;
+    }
+
+    /**
+     * 与 {@link PowerBoxDataType#getCommandTypeFromMessage(CharSequence)} 相同的前缀判断；前缀含转义时返回 null 以回退
+     */
+    @Nullable
+    private PowerBoxDataType commandType(int start, int endExclusive) {
+        int dash = start;
+        while (dash < endExclusive && at(dash) != '-') {
+            if (at(dash) == '\\') return null;
+            dash++;
+        }
+        return switch (dash - start) {
+            case 5 -> regionEquals(start, dash, "pulse") ? PowerBoxDataType.PULSE
+                    : regionEquals(start, dash, "clear") ? PowerBoxDataType.CLEAR : PowerBoxDataType.UNKNOWN;
+            case 8 -> regionEquals(start, dash, "strength") ? PowerBoxDataType.STRENGTH
+                    : regionEquals(start, dash, "feedback") ? PowerBoxDataType.FEEDBACK : PowerBoxDataType.UNKNOWN;
+            default -> PowerBoxDataType.UNKNOWN;
+        };
+    }
+
+    private int skipWhitespace(int i) {
+        while (i < end) {
+            int c = at(i);
+            if (c != ' ' && c != '\t' && c != '\n' && c != '\r') break;
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * @return 字符串结束引号的下标，未闭合时为 -1
+     */
+    private int stringEnd(int i) {
+        while (i < end) {
+            int c = at(i);
+            if (c == '"') return i;
+            i += c == '\\' ? 2 : 1;
+        }
+        return -1;
+    }
+
+    /**
+     * @return 非字符串值之后的下标，格式错误时为 -1
+     */
+    private int skipValue(int i) {
+        int depth = 0;
+        while (i < end) {
+            int c = at(i);
+            switch (c) {
+                case '"' -> {
+                    i = stringEnd(i + 1);
+                    if (i < 0) return -1;
+                }
+                case '{', '[' -> depth++;
+                case '}', ']' -> {
+                    if (depth == 0) return i;
+                    if (--depth == 0) return i + 1;
+                }
+                case ',' -> {
+                    if (depth == 0) return i;
+                }
+                default -> {}
+            }
+            i++;
+        }
+        return -1;
+    }
+
+    private boolean hasEscape(int start, int endExclusive) {
+        for (int i = start; i < endExclusive; i++) {
+            if (at(i) == '\\') return true;
+        }
+        return false;
+    }
+
+    private boolean isAscii(int start, int endExclusive) {
+        for (int i = start; i < endExclusive; i++) {
+            if (at(i) >= 0x80) return false;
+        }
+        return true;
+    }
+
+    private boolean regionEquals(int start, int endExclusive, CharSequence expected) {
+        int length = expected.length();
+        if (endExclusive - start != length) return false;
+        for (int i = 0; i < length; i++) {
+            if (at(start + i) != expected.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    private String slice(int start, int endExclusive) {
+        return switch (kind) {
+            case BYTES -> new String(bytes, start, endExclusive - start, StandardCharsets.UTF_8);
+            case BUFFER -> {
+                byte[] copy = new byte[endExclusive - start];
+                buffer.get(start, copy);
+                yield new String(copy, StandardCharsets.UTF_8);
+            }
+            default -> chars.subSequence(start, endExclusive).toString();
+        };
+    }
+}
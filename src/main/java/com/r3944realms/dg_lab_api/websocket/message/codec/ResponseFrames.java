@@ -0,0 +1,158 @@
+/*******************************************************************************
+ * Copyright (c) 2024-2025 R3944Realms. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.r3944realms.dg_lab_api.websocket.message.codec;
+
+import com.r3944realms.dg_lab_api.websocket.message.data.type.PowerBoxDataType;
+import com.r3944realms.dg_lab_api.websocket.message.data.type.PowerBoxStatusCode;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 预编码的应答帧（heartbeat、bind、break、error + 状态码）<br/>
+ * 每种类型的开头 <code>{"type":"error"</code> 与每个状态码的结尾 <code>,"message":"403"}</code> 在类加载时编码为 UTF-8，
+ * 写入时只需拷贝这两段并在中间填入 clientId / targetId；两者皆为空字符串时直接拷贝整帧。
+ * 输出与 {@link com.r3944realms.dg_lab_api.websocket.message.data.adapter.PowerBoxDataCodec#write(ByteBuffer, com.r3944realms.dg_lab_api.websocket.message.data.PowerBoxData, boolean)}
+ * 逐字节一致（null 字段省略）。
+ */
+public final class ResponseFrames {
+    private static final PowerBoxDataType[] TYPES = {
+            PowerBoxDataType._NC_HEARTBEAT_, PowerBoxDataType._NC_BIND_, PowerBoxDataType._NC_BREAK_, PowerBoxDataType._NC_ERROR_
+    };
+    private static final String[] TYPE_NAMES = {"heartbeat", "bind", "break", "error"};
+    private static final byte[] CLIENT_ID = bytes(",\"clientId\":");
+    private static final byte[] TARGET_ID = bytes(",\"targetId\":");
+    private static final byte[][] HEADS = new byte[TYPES.length][];
+    private static final byte[][] TAILS = new byte[PowerBoxStatusCode.values().length][];
+    private static final byte[][][] EMPTY_ID_FRAMES = new byte[TYPES.length][TAILS.length][];
+
+    static {
+        for (int i = 0; i < TYPES.length; i++) {
+            HEADS[i] = bytes("{\"type\":\"" + TYPE_NAMES[i] + "\"");
+        }
+        for (PowerBoxStatusCode code : PowerBoxStatusCode.values()) {
+            TAILS[code.ordinal()] = bytes(",\"message\":\"" + code.getCode() + "\"}");
+        }
+        for (int i = 0; i < TYPES.length; i++) {
+            for (PowerBoxStatusCode code : PowerBoxStatusCode.values()) {
+                EMPTY_ID_FRAMES[i][code.ordinal()] = bytes("{\"type\":\"" + TYPE_NAMES[i] + "\",\"clientId\":\"\",\"targetId\":\"\",\"message\":\"" + code.getCode() + "\"}");
+            }
+        }
+    }
+
+    private ResponseFrames() {}
+
+    private static byte[] bytes(String ascii) {
+        return ascii.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int typeIndex(PowerBoxDataType type) {
+        return switch (type) {
+            case _NC_HEARTBEAT_ -> 0;
+            case _NC_BIND_ -> 1;
+            case _NC_BREAK_ -> 2;
+            case _NC_ERROR_ -> 3;
+            default -> throw new IllegalArgumentException("Not a response frame type: " + type);
+        };
+    }
+
+    /**
+     * 写入应答帧
+     *
+     * @param buffer   目标缓冲区（从当前 position 开始写入）
+     * @param type     类型，仅限 _NC_HEARTBEAT_、_NC_BIND_、_NC_BREAK_、_NC_ERROR_
+     * @param code     状态码
+     * @param clientId the client id
+     * @param targetId the target id
+     * @return 写入的字节数
+     * @throws IllegalArgumentException         类型不是应答帧类型
+     * @throws java.nio.BufferOverflowException 缓冲区空间不足
+     */
+    public static int write(ByteBuffer buffer, PowerBoxDataType type, PowerBoxStatusCode code, @Nullable String clientId, @Nullable String targetId) {
+        return write(buffer, type, code, clientId, targetId, false);
+    }
+
+    /**
+     * 写入应答帧
+     *
+     * @param buffer   目标缓冲区（从当前 position 开始写入）
+     * @param type     类型，仅限 _NC_HEARTBEAT_、_NC_BIND_、_NC_BREAK_、_NC_ERROR_
+     * @param code     状态码
+     * @param clientId the client id
+     * @param targetId the target id
+     * @param fix      是否去掉转义用的反斜杠
+     * @return 写入的字节数
+     * @throws IllegalArgumentException         类型不是应答帧类型
+     * @throws java.nio.BufferOverflowException 缓冲区空间不足
+     */
+    public static int write(ByteBuffer buffer, PowerBoxDataType type, PowerBoxStatusCode code, @Nullable String clientId, @Nullable String targetId, boolean fix) {
+        int index = typeIndex(type);
+        int start = buffer.position();
+        if (clientId != null && clientId.isEmpty() && targetId != null && targetId.isEmpty()) {
+            buffer.put(EMPTY_ID_FRAMES[index][code.ordinal()]);
+            return buffer.position() - start;
+        }
+        buffer.put(HEADS[index]);
+        if (clientId != null) {
+            buffer.put(CLIENT_ID);
+            Utf8JsonEncoder.writeString(buffer, clientId, fix);
+        }
+        if (targetId != null) {
+            buffer.put(TARGET_ID);
+            Utf8JsonEncoder.writeString(buffer, targetId, fix);
+        }
+        buffer.put(TAILS[code.ordinal()]);
+        return buffer.position() - start;
+    }
+
+    /**
+     * 编码应答帧
+     *
+     * @param type     类型，仅限 _NC_HEARTBEAT_、_NC_BIND_、_NC_BREAK_、_NC_ERROR_
+     * @param code     状态码
+     * @param clientId the client id
+     * @param targetId the target id
+     * @return UTF-8 JSON
+     * @throws IllegalArgumentException 类型不是应答帧类型
+     */
+    public static byte[] encode(PowerBoxDataType type, PowerBoxStatusCode code, @Nullable String clientId, @Nullable String targetId) {
+        ByteBuffer buffer = ByteBuffer.allocate(maxLength(type, code, clientId, targetId));
+        write(buffer, type, code, clientId, targetId);
+        byte[] bytes = new byte[buffer.position()];
+        buffer.flip().get(bytes);
+        return bytes;
+    }
+
+    /**
+     * 应答帧长度的上界，用于预分配缓冲区
+     *
+     * @param type     类型，仅限 _NC_HEARTBEAT_、_NC_BIND_、_NC_BREAK_、_NC_ERROR_
+     * @param code     状态码
+     * @param clientId the client id
+     * @param targetId the target id
+     * @return 字节数上界
+     * @throws IllegalArgumentException 类型不是应答帧类型
+     */
+    public static int maxLength(PowerBoxDataType type, PowerBoxStatusCode code, @Nullable String clientId, @Nullable String targetId) {
+        int length = HEADS[typeIndex(type)].length + TAILS[code.ordinal()].length;
+        // 转义后每个字符最多6字节
+        if (clientId != null) length += CLIENT_ID.length + clientId.length() * 6 + 2;
+        if (targetId != null) length += TARGET_ID.length + targetId.length() * 6 + 2;
+        return length;
+    }
+}
@@ -0,0 +1,271 @@
+/*******************************************************************************
+ * Copyright (c) 2024-2025 R3944Realms. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.r3944realms.dg_lab_api.websocket.message.codec;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * JSON -> UTF-8 直接编码工具<br/>
+ * 直接写入调用方提供的 {@link ByteBuffer}（可为池化的直接缓冲区），不生成中间 {@link String}。
+ * 转义规则与 Gson 默认配置（HTML 安全）逐字节一致。<br/>
+ * <code>fix</code> 模式等价于对 Gson 输出执行 <code>replace("\\", "")</code>，但在同一遍中完成。
+ * <p>
+ * 缓冲区空间不足时抛出 {@link BufferOverflowException}，与 {@link ByteBuffer#put(byte)} 一致。
+ */
+public final class Utf8JsonEncoder {
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    /**
+     * ASCII 字符的转义序列，null 表示原样输出
+     */
+    private static final byte[][] ESCAPES = new byte[128][];
+    /**
+     * 去掉反斜杠后的转义序列（fix 模式）
+     */
+    private static final byte[][] FIXED_ESCAPES = new byte[128][];
+    private static final int INITIAL_SCRATCH_SIZE = 4096;
+    /**
+     * 线程内保留的缓冲区上限，超出时只为本次编码临时分配，避免偶发的大消息长期占用每个线程的内存
+     */
+    private static final int MAX_RETAINED_SCRATCH_SIZE = 64 * 1024;
+    private static final ThreadLocal<ByteBuffer> SCRATCH = ThreadLocal.withInitial(() -> ByteBuffer.allocate(INITIAL_SCRATCH_SIZE));
+
+    static {
+        for (int c = 0; c < 0x20; c++) {
+            escape(c, String.format("\\u%04x", c));
+        }
+        escape('"', "\\\"");
+        escape('\\', "\\\\");
+        escape('\t', "\\t");
+        escape('\b', "\\b");
+        escape('\n', "\\n");
+        escape('\r', "\\r");
+        escape('\f', "\\f");
+        // Gson 默认开启 HTML 安全转义
+        escape('<', "\\u003c");
+        escape('>', "\\u003e");
+        escape('&', "\\u0026");
+        escape('=', "\\u003d");
+        escape('\'', "\\u0027");
+    }
+
+    private Utf8JsonEncoder() {}
+
+    private static void escape(int c, String sequence) {
+        ESCAPES[c] = sequence.getBytes(StandardCharsets.US_ASCII);
+        FIXED_ESCAPES[c] = sequence.replace("\\", "").getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * 预编码字段名，结果形如 <code>"name":</code>
+     *
+     * @param name 字段名
+     * @return 编码后的字节
+     */
+    public static byte[] encodeName(String name) {
+        ByteBuffer buffer = ByteBuffer.allocate(name.length() * 6 + 3);
+        writeString(buffer, name, false);
+        buffer.put((byte) ':');
+        byte[] bytes = new byte[buffer.position()];
+        buffer.flip().get(bytes);
+        return bytes;
+    }
+
+    /**
+     * 写入原始字节
+     *
+     * @param buffer 目标缓冲区
+     * @param bytes  字节
+     */
+    public static void writeRaw(ByteBuffer buffer, byte[] bytes) {
+        buffer.put(bytes);
+    }
+
+    /**
+     * 将已经是 JSON 的文本按 UTF-8 原样写入（不转义）
+     *
+     * @param buffer 目标缓冲区
+     * @param json   JSON 文本
+     */
+    public static void writeRaw(ByteBuffer buffer, CharSequence json) {
+        int length = json.length();
+        for (int i = 0; i < length; i++) {
+            char c = json.charAt(i);
+            if (c < 0x80) {
+                buffer.put((byte) c);
+            } else {
+                i = writeNonAscii(buffer, json, i, c, false);
+            }
+        }
+    }
+
+    /**
+     * {@link #writeRaw(ByteBuffer, CharSequence)} 将写入的字节数（不成对的代理字符计为1字节 '?'）
+     *
+     * @param value 文本
+     * @return UTF-8 字节数
+     */
+    public static int utf8Length(CharSequence value) {
+        int length = value.length();
+        int bytes = length;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) continue;
+            if (c < 0x800) {
+                bytes += 1;
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    bytes += 2;
+                    i++;
+                }
+            } else {
+                bytes += 2;
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * 写入带引号的 JSON 字符串，<code>null</code> 写为 <code>null</code>
+     *
+     * @param buffer 目标缓冲区
+     * @param value  字符串
+     * @param fix    是否去掉转义用的反斜杠
+     */
+    public static void writeString(ByteBuffer buffer, @Nullable CharSequence value, boolean fix) {
+        if (value == null) {
+            buffer.put((byte) 'n').put((byte) 'u').put((byte) 'l').put((byte) 'l');
+            return;
+        }
+        final byte[][] escapes = fix ? FIXED_ESCAPES : ESCAPES;
+        buffer.put((byte) '"');
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                byte[] escape = escapes[c];
+                if (escape == null) {
+                    buffer.put((byte) c);
+                } else {
+                    buffer.put(escape);
+                }
+            } else if (c == 0x2028 || c == 0x2029) {
+                if (!fix) buffer.put((byte) '\\');
+                buffer.put((byte) 'u').put((byte) '2').put((byte) '0').put((byte) '2').put(HEX[c & 0xF]);
+            } else {
+                i = writeNonAscii(buffer, value, i, c, fix);
+            }
+        }
+        buffer.put((byte) '"');
+    }
+
+    /**
+     * 写入十进制整数
+     *
+     * @param buffer 目标缓冲区
+     * @param value  数值
+     */
+    public static void writeInt(ByteBuffer buffer, long value) {
+        if (value < 0) {
+            if (value == Long.MIN_VALUE) {
+                writeRaw(buffer, Long.toString(value));
+                return;
+            }
+            buffer.put((byte) '-');
+            value = -value;
+        }
+        long divisor = 1;
+        while (divisor <= value / 10) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            buffer.put((byte) ('0' + (value / divisor) % 10));
+        }
+    }
+
+    /**
+     * 使用线程内复用的缓冲区编码，再一次性写入输出流
+     *
+     * @param out     输出流
+     * @param encoder 编码过程
+     * @throws IOException the io exception
+     */
+    public static void writeTo(OutputStream out, Encoder encoder) throws IOException {
+        ByteBuffer buffer = SCRATCH.get();
+        while (true) {
+            buffer.clear();
+            try {
+                encoder.encode(buffer);
+                break;
+            } catch (BufferOverflowException e) {
+                buffer = ByteBuffer.allocate(buffer.capacity() << 1);
+                if (buffer.capacity() <= MAX_RETAINED_SCRATCH_SIZE) SCRATCH.set(buffer);
+            }
+        }
+        out.write(buffer.array(), 0, buffer.position());
+    }
+
+    /**
+     * 按 UTF-8 写入单个非 ASCII 字符，孤立的代理字符写为 '?'（与 {@link String#getBytes} 一致）。<br/>
+     * fix 模式下 '\\' 会被整体去掉，因此其两侧的代理字符可能拼成一对，这里同样跳过。
+     *
+     * @return 最后消费的字符下标
+     */
+    private static int writeNonAscii(ByteBuffer buffer, CharSequence value, int i, char c, boolean fix) {
+        if (c < 0x800) {
+            buffer.put((byte) (0xC0 | (c >> 6)))
+                    .put((byte) (0x80 | (c & 0x3F)));
+        } else if (Character.isSurrogate(c)) {
+            int next = i + 1;
+            if (fix) {
+                while (next < value.length() && value.charAt(next) == '\\') next++;
+            }
+            if (Character.isHighSurrogate(c) && next < value.length() && Character.isLowSurrogate(value.charAt(next))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(i = next));
+                buffer.put((byte) (0xF0 | (codePoint >> 18)))
+                        .put((byte) (0x80 | ((codePoint >> 12) & 0x3F)))
+                        .put((byte) (0x80 | ((codePoint >> 6) & 0x3F)))
+                        .put((byte) (0x80 | (codePoint & 0x3F)));
+            } else {
+                buffer.put((byte) '?');
+            }
+        } else {
+            buffer.put((byte) (0xE0 | (c >> 12)))
+                    .put((byte) (0x80 | ((c >> 6) & 0x3F)))
+                    .put((byte) (0x80 | (c & 0x3F)));
+        }
+        return i;
+    }
+
+    /**
+     * 编码过程
+     */
+    @FunctionalInterface
+    public interface Encoder {
+        /**
+         * Encode.
+         *
+         * @param buffer 目标缓冲区
+         */
+        void encode(ByteBuffer buffer);
+    }
+}
@@ -0,0 +1,111 @@
+/*******************************************************************************
+ * Copyright (c) 2024-2025 R3944Realms. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.r3944realms.dg_lab_api.websocket.message.data;
+
+import com.r3944realms.dg_lab_api.message.data.HexCodec;
+import com.r3944realms.dg_lab_api.websocket.message.data.type.ValidationCode;
+
+/**
+ * 指令校验器<br/>
+ * 基于 {@link PowerBoxCommand} 视图校验，数字与16进制均手工逐字符检查，
+ * 不抛出异常、不使用正则，结果以 {@link ValidationCode} 返回。
+ */
+public final class CommandValidator {
+    /**
+     * 波形列表最大段数
+     */
+    public static final int MAX_WAVEFORM_FRAMES = 100;
+    /**
+     * 单段波形数据的字符数
+     */
+    public static final int WAVEFORM_FRAME_LENGTH = 16;
+
+    private CommandValidator() {}
+
+    /**
+     * 校验指令
+     *
+     * @param command 指令消息
+     * @return 校验结果
+     */
+    public static ValidationCode validate(String command) {
+        if (command == null || command.isEmpty()) return ValidationCode.EMPTY_COMMAND;
+        return validate(PowerBoxCommand.parse(command));
+    }
+
+    /**
+     * 校验已解析的指令
+     *
+     * @param command 指令视图
+     * @return 校验结果
+     */
+    public static ValidationCode validate(PowerBoxCommand command) {
+        if (command.source().isEmpty()) return ValidationCode.EMPTY_COMMAND;
+        return switch (command.kind()) {
+            case STRENGTH -> validateStrength(command);
+            case PULSE -> validatePulse(command);
+            case CLEAR -> validateClear(command);
+            case FEEDBACK -> validateFeedback(command);
+            default -> ValidationCode.UNKNOWN_COMMAND;
+        };
+    }
+
+    private static ValidationCode validateStrength(PowerBoxCommand command) {
+        switch (command.argCount()) {
+            case 3: {
+                if (!command.isNumeric()) return ValidationCode.INVALID_NUMBER;
+                int channel = command.getInt(0);
+                if (channel != 1 && channel != 2) return ValidationCode.INVALID_STRENGTH_CHANNEL;
+                if (command.getInt(1) > 2) return ValidationCode.INVALID_STRENGTH_POLICY;
+                if (command.getInt(2) > 200) return ValidationCode.STRENGTH_VALUE_OUT_OF_RANGE;
+                return ValidationCode.VALID;
+            }
+            case 4: {
+                return ValidationCode.VALID;//App发来的数据应该不会有问题（如果有也不是我的锅（））
+            }
+            default: return ValidationCode.INVALID_ARGUMENT_COUNT;
+        }
+    }
+
+    private static ValidationCode validatePulse(PowerBoxCommand command) {
+        if (command.channel() == null) return ValidationCode.INVALID_PULSE_CHANNEL;
+        if (!command.hasFrames()) return ValidationCode.WAVEFORM_LIST_MISSING;
+        int frameCount = command.frameCount();
+        if (frameCount > MAX_WAVEFORM_FRAMES) return ValidationCode.WAVEFORM_LIST_TOO_LONG;
+        String source = command.source();
+        for (int i = 0; i < frameCount; i++) {
+            int start = command.frameStart(i);
+            int end = command.frameEnd(i);
+            if (end - start != WAVEFORM_FRAME_LENGTH) return ValidationCode.INVALID_WAVEFORM_LENGTH;
+            if (!HexCodec.isHex(source, start, end)) return ValidationCode.INVALID_WAVEFORM_SYNTAX;
+        }
+        return ValidationCode.VALID;
+    }
+
+    private static ValidationCode validateClear(PowerBoxCommand command) {
+        if (!command.hasBody() || command.hasExtraSegments()) return ValidationCode.INVALID_ARGUMENT_COUNT;
+        if (command.bodyEnd() - command.bodyStart() != 1 || command.channel() == null) return ValidationCode.INVALID_CLEAR_CHANNEL;
+        return ValidationCode.VALID;
+    }
+
+    private static ValidationCode validateFeedback(PowerBoxCommand command) {
+        if (command.hasExtraSegments() || command.argCount() != 1) return ValidationCode.INVALID_ARGUMENT_COUNT;
+        if (!command.isNumeric()) return ValidationCode.INVALID_NUMBER;
+        if (command.getInt(0) > 10) return ValidationCode.FEEDBACK_OUT_OF_RANGE;
+        return ValidationCode.VALID;
+    }
+}
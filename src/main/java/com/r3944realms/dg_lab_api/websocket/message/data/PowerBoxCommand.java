@@ -0,0 +1,384 @@
+/*******************************************************************************
+ * Copyright (c) 2024-2025 R3944Realms. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.r3944realms.dg_lab_api.websocket.message.data;
+
+import com.r3944realms.dg_lab_api.message.argType.ChangePolicy;
+import com.r3944realms.dg_lab_api.message.argType.Channel;
+import com.r3944realms.dg_lab_api.websocket.message.data.type.PowerBoxDataType;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * 已解析的指令视图<br/>
+ * 对指令消息（如 <code>strength-1+2+30</code>、<code>pulse-A:["...", ...]</code>）只做一次扫描，
+ * 记录指令类型、通道、策略、整数参数以及每段波形数据在原字符串中的位置，不分割字符串。
+ * <p>
+ * 实例不可变，由 {@link PowerBoxData#getParsedCommand()} 惰性创建并缓存。
+ * 解析本身不抛出异常，格式是否正确由各查询方法反映，校验见 {@link PowerBoxData#isCommandValid(String)}。
+ */
+public final class PowerBoxCommand {
+    private static final int[] NO_INTS = new int[0];
+    private static final PowerBoxCommand EMPTY = new PowerBoxCommand("", PowerBoxDataType.UNKNOWN, -1, -1, false, NO_INTS, true, NO_INTS, NO_INTS, false);
+    private final String source;
+    private final PowerBoxDataType kind;
+    private final int bodyStart;
+    private final int bodyEnd;
+    private final boolean extraSegments;
+    private final int[] args;
+    private final boolean numeric;
+    private final int[] frameStarts;
+    private final int[] frameEnds;
+    private final boolean framesPresent;
+
+    private PowerBoxCommand(String source, PowerBoxDataType kind, int bodyStart, int bodyEnd, boolean extraSegments,
+                            int[] args, boolean numeric, int[] frameStarts, int[] frameEnds, boolean framesPresent) {
+        this.source = source;
+        this.kind = kind;
+        this.bodyStart = bodyStart;
+        this.bodyEnd = bodyEnd;
+        this.extraSegments = extraSegments;
+        this.args = args;
+        this.numeric = numeric;
+        this.frameStarts = frameStarts;
+        this.frameEnds = frameEnds;
+        this.framesPresent = framesPresent;
+    }
+
+    /**
+     * 按消息自身的前缀解析
+     *
+     * @param message 指令消息
+     * @return 解析结果
+     */
+    public static PowerBoxCommand parse(@Nullable String message) {
+        return parse(message, PowerBoxDataType.getCommandTypeFromMessage(message));
+    }
+
+    /**
+     * 按指定的指令类型解析
+     *
+     * @param message 指令消息
+     * @param kind    指令类型
+     * @return 解析结果
+     */
+    public static PowerBoxCommand parse(@Nullable String message, PowerBoxDataType kind) {
+        if (message == null || message.isEmpty()) {
+            return EMPTY;
+        }
+        int length = message.length();
+        int dash = message.indexOf('-');
+        if (dash < 0) {
+            return new PowerBoxCommand(message, kind, -1, -1, false, NO_INTS, true, NO_INTS, NO_INTS, false);
+        }
+        int bodyStart = dash + 1;
+        int next = message.indexOf('-', bodyStart);
+        int bodyEnd = next < 0 ? length : next;
+        // 与 String.split 一致：末尾的空段不计
+        boolean extraSegments = false;
+        for (int i = bodyEnd; i < length; i++) {
+            if (message.charAt(i) != '-') {
+                extraSegments = true;
+                break;
+            }
+        }
+        return switch (kind) {
+            case STRENGTH, CLEAR, FEEDBACK -> parseArguments(message, kind, bodyStart, bodyEnd, extraSegments);
+            case PULSE -> parseFrames(message, bodyStart, bodyEnd, extraSegments);
+            default -> new PowerBoxCommand(message, kind, bodyStart, bodyEnd, extraSegments, NO_INTS, true, NO_INTS, NO_INTS, false);
+        };
+    }
+
+    private static PowerBoxCommand parseArguments(String message, PowerBoxDataType kind, int start, int end, boolean extraSegments) {
+        // 与 String.split 一致：末尾的空参数不计
+        while (end > start && message.charAt(end - 1) == '+') end--;
+        int count = end > start ? 1 : 0;
+        for (int i = start; i < end; i++) {
+            if (message.charAt(i) == '+') count++;
+        }
+        int[] args = count == 0 ? NO_INTS : new int[count];
+        boolean numeric = true;
+        int index = 0;
+        int tokenStart = start;
+        for (int i = start; i <= end && count > 0; i++) {
+            if (i == end || message.charAt(i) == '+') {
+                int value = parseNonNegativeInt(message, tokenStart, i);
+                if (value < 0) numeric = false;
+                args[index++] = value;
+                tokenStart = i + 1;
+            }
+        }
+        return new PowerBoxCommand(message, kind, start, end, extraSegments, args, numeric, NO_INTS, NO_INTS, false);
+    }
+
+    /**
+     * 直接从消息字符解码 '+' 分隔的整数参数，不分配任何对象
+     *
+     * @param message 指令消息
+     * @param kind    期望的指令类型，与消息前缀不符时返回 -1
+     * @param out     输出数组，超出长度的参数只计数不写入
+     * @return 参数个数，类型不符或存在非法整数时返回 -1
+     */
+    static int scanIntArguments(@Nullable String message, PowerBoxDataType kind, int[] out) {
+        if (message == null || PowerBoxDataType.getCommandTypeFromMessage(message) != kind) return -1;
+        int start = message.indexOf('-') + 1;
+        if (start == 0) return 0;
+        int end = message.indexOf('-', start);
+        if (end < 0) end = message.length();
+        while (end > start && message.charAt(end - 1) == '+') end--;
+        if (start == end) return 0;
+        int count = 0;
+        int tokenStart = start;
+        for (int i = start; i <= end; i++) {
+            if (i == end || message.charAt(i) == '+') {
+                int value = parseNonNegativeInt(message, tokenStart, i);
+                if (value < 0) return -1;
+                if (count < out.length) out[count] = value;
+                count++;
+                tokenStart = i + 1;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 手工解析 [start, end) 区间内的非负十进制整数
+     *
+     * @return 数值，为空、含非数字字符或溢出时返回 -1
+     */
+    static int parseNonNegativeInt(CharSequence s, int start, int end) {
+        if (start >= end) return -1;
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = s.charAt(i) - '0';
+            if (digit < 0 || digit > 9 || value > (Integer.MAX_VALUE - digit) / 10) return -1;
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static PowerBoxCommand parseFrames(String message, int start, int end, boolean extraSegments) {
+        int open = message.indexOf('[', start);
+        int close = open < 0 || open >= end ? -1 : message.indexOf(']', open + 1);
+        if (close < 0 || close > end) {
+            return new PowerBoxCommand(message, PowerBoxDataType.PULSE, start, end, extraSegments, NO_INTS, true, NO_INTS, NO_INTS, false);
+        }
+        int contentStart = open + 1;
+        // 与 String.split 一致：末尾的空元素不计，但内容为空时保留一个空元素
+        int contentEnd = close;
+        while (contentEnd > contentStart && message.charAt(contentEnd - 1) == ',') contentEnd--;
+        int count = 1;
+        for (int i = contentStart; i < contentEnd; i++) {
+            if (message.charAt(i) == ',') count++;
+        }
+        int[] starts = new int[count];
+        int[] ends = new int[count];
+        int elementStart = contentStart;
+        int index = 0;
+        for (int i = contentStart; i <= contentEnd; i++) {
+            if (i == contentEnd || message.charAt(i) == ',') {
+                int s = elementStart;
+                int e = i;
+                while (s < e && message.charAt(s) == '"') s++;
+                while (e > s && message.charAt(e - 1) == '"') e--;
+                starts[index] = s;
+                ends[index] = e;
+                index++;
+                elementStart = i + 1;
+            }
+        }
+        return new PowerBoxCommand(message, PowerBoxDataType.PULSE, start, end, extraSegments, NO_INTS, true, starts, ends, true);
+    }
+
+    /**
+     * 原始消息
+     *
+     * @return the source
+     */
+    public String source() {
+        return source;
+    }
+
+    /**
+     * 指令类型
+     *
+     * @return {@link PowerBoxDataType#STRENGTH}, {@link PowerBoxDataType#PULSE}, {@link PowerBoxDataType#CLEAR},
+     * {@link PowerBoxDataType#FEEDBACK} 或 {@link PowerBoxDataType#UNKNOWN}
+     */
+    public PowerBoxDataType kind() {
+        return kind;
+    }
+
+    /**
+     * 是否存在 '-' 之后的参数部分
+     *
+     * @return the boolean
+     */
+    public boolean hasBody() {
+        return bodyStart >= 0 && bodyStart < bodyEnd;
+    }
+
+    /**
+     * 参数部分之后是否还有多余的 '-' 分段
+     *
+     * @return the boolean
+     */
+    public boolean hasExtraSegments() {
+        return extraSegments;
+    }
+
+    /**
+     * 参数部分在原字符串中的起始位置
+     *
+     * @return 起始下标，无参数部分时为 -1
+     */
+    public int bodyStart() {
+        return bodyStart;
+    }
+
+    /**
+     * 参数部分在原字符串中的结束位置（不含）
+     *
+     * @return 结束下标，无参数部分时为 -1
+     */
+    public int bodyEnd() {
+        return bodyEnd;
+    }
+
+    /**
+     * '+' 分隔的参数个数（强度、清空、反馈指令）
+     *
+     * @return the int
+     */
+    public int argCount() {
+        return args.length;
+    }
+
+    /**
+     * 全部参数是否均为非负整数
+     *
+     * @return the boolean
+     */
+    public boolean isNumeric() {
+        return numeric;
+    }
+
+    /**
+     * 获取第 index 个整数参数
+     *
+     * @param index 下标
+     * @return 参数值，不是合法整数时为 -1
+     */
+    public int getInt(int index) {
+        return args[index];
+    }
+
+    /**
+     * 通道<br/>
+     * 强度（3参数）和清空指令取第一个参数（1->A, 2->B），波形指令取通道字符（A/B）
+     *
+     * @return 通道，无法识别时为 null
+     */
+    @Nullable
+    public Channel channel() {
+        return switch (kind) {
+            case STRENGTH -> args.length == 3 ? channelOf(args[0]) : null;
+            case CLEAR -> args.length == 1 ? channelOf(args[0]) : null;
+            case PULSE -> {
+                if (!hasBody()) yield null;
+                char c = source.charAt(bodyStart);
+                yield c == 'A' ? Channel.A : c == 'B' ? Channel.B : null;
+            }
+            default -> null;
+        };
+    }
+
+    private static Channel channelOf(int index) {
+        return index == 1 ? Channel.A : index == 2 ? Channel.B : null;
+    }
+
+    /**
+     * 强度改变策略（仅3参数的强度指令）
+     *
+     * @return 策略，无法识别时为 null
+     */
+    @Nullable
+    public ChangePolicy policy() {
+        if (kind != PowerBoxDataType.STRENGTH || args.length != 3) return null;
+        int policy = args[1];
+        return policy >= 0 && policy <= 2 ? ChangePolicy.getChangePolicy(policy) : null;
+    }
+
+    /**
+     * 波形列表的方括号是否完整
+     *
+     * @return the boolean
+     */
+    public boolean hasFrames() {
+        return framesPresent;
+    }
+
+    /**
+     * 波形数据段数
+     *
+     * @return the int
+     */
+    public int frameCount() {
+        return frameStarts.length;
+    }
+
+    /**
+     * 第 index 段波形数据在原字符串中的起始位置（已去掉引号）
+     *
+     * @param index 下标
+     * @return 起始下标
+     */
+    public int frameStart(int index) {
+        return frameStarts[index];
+    }
+
+    /**
+     * 第 index 段波形数据在原字符串中的结束位置（不含，已去掉引号）
+     *
+     * @param index 下标
+     * @return 结束下标
+     */
+    public int frameEnd(int index) {
+        return frameEnds[index];
+    }
+
+    /**
+     * 第 index 段波形数据
+     *
+     * @param index 下标
+     * @return 如 "0A0A0A0A00000000"
+     */
+    public String frame(int index) {
+        return source.substring(frameStarts[index], frameEnds[index]);
+    }
+
+    /**
+     * 全部波形数据
+     *
+     * @return the string [ ]
+     */
+    public String[] frames() {
+        String[] frames = new String[frameStarts.length];
+        for (int i = 0; i < frames.length; i++) {
+            frames[i] = frame(i);
+        }
+        return frames;
+    }
+}
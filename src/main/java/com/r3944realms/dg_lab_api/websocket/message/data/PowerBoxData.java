@@ -18,13 +18,11 @@ package com.r3944realms.dg_lab_api.websocket.message.data;
 
 import com.r3944realms.dg_lab_api.websocket.message.data.type.PowerBoxDataType;
 import com.r3944realms.dg_lab_api.websocket.message.data.type.PowerBoxStatusCode;
+import com.r3944realms.dg_lab_api.websocket.message.data.type.ValidationCode;
+
+import org.jetbrains.annotations.Nullable;
 
-import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Objects;
-import java.util.concurrent.atomic.AtomicReference;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * PowerBox 负载消息数据
@@ -35,7 +33,10 @@ public class PowerBoxData implements IData {
     private final String clientId;
     private final String targetId;
     private final String message;
-    AtomicReference<String> inValidReason = new AtomicReference<>(getInvalidReason());
+    /**
+     * 惰性解析并缓存的指令视图
+     */
+    transient PowerBoxCommand command;
     /**
      * Instantiates a new Power box data.
      *
@@ -124,21 +125,47 @@ public class PowerBoxData implements IData {
 
     @Override
     public boolean isValid() {
+        return validate() == null;
+    }
+
+    /**
+     * 校验数据，仅在无效时返回结果（有效的数据不产生任何额外对象）
+     *
+     * @return 无效原因，有效时为 null
+     */
+    @Nullable
+    public ValidationCode validate() {
         if(type == null || type.isEmpty() || clientId == null  || targetId == null || message == null) {
-            inValidReason.set("Invalid PowerBox Data");
-            return false;
+            return ValidationCode.INVALID_DATA;
         }
         final boolean commonValidCheck = !clientId.isEmpty() && !targetId.isEmpty() && !message.isEmpty();
         return switch (type) {
-            case "heartbeat" -> !clientId.isEmpty() && PowerBoxStatusCode.isValidStatusCode(message);
-            case "bind" -> Objects.equals(message, "targetId") ? (targetId.isEmpty() && !clientId.isEmpty()) : commonValidCheck;
-            case "msg" -> !clientId.isEmpty() && !targetId.isEmpty() && isCommandValid(message);
-            case "break","clientMsg" -> commonValidCheck;
-            case "error" -> !message.isEmpty();
-            default -> false;
+            case "heartbeat" -> clientId.isEmpty() ? ValidationCode.EMPTY_FIELD
+                    : PowerBoxStatusCode.isValidStatusCode(message) ? null : ValidationCode.INVALID_STATUS_CODE;
+            case "bind" -> (Objects.equals(message, "targetId") ? (targetId.isEmpty() && !clientId.isEmpty()) : commonValidCheck)
+                    ? null : ValidationCode.EMPTY_FIELD;
+            case "msg" -> {
+                if (clientId.isEmpty() || targetId.isEmpty()) yield ValidationCode.EMPTY_FIELD;
+                ValidationCode code = checkCommand(message);
+                yield code.isValid() ? null : code;
+            }
+            case "break","clientMsg" -> commonValidCheck ? null : ValidationCode.EMPTY_FIELD;
+            case "error" -> message.isEmpty() ? ValidationCode.EMPTY_FIELD : null;
+            default -> ValidationCode.UNKNOWN_DATA_TYPE;
         };
     }
 
+    /**
+     * 获取无效原因，按需调用 {@link #validate()} 生成
+     *
+     * @return 无效原因
+     */
+    @Override
+    public String getInvalidReason() {
+        ValidationCode code = validate();
+        return code == null ? IData.super.getInvalidReason() : code.getReason();
+    }
+
     @Override
     public DataType Type() {
         return DataType.POWER_BOX;
@@ -150,7 +177,7 @@ public class PowerBoxData implements IData {
      * @return the command type
      */
     public PowerBoxDataType getCommandType() {
-        return PowerBoxDataType.getType(type, message);
+        return getCommandType(false);
     }
 
     /**
@@ -160,7 +187,21 @@ public class PowerBoxData implements IData {
      * @return the command type
      */
     public PowerBoxDataType getCommandType(boolean mayPulse) {
-        return PowerBoxDataType.getType(type, message, mayPulse);
+        return PowerBoxDataType.getType(type, getParsedCommand().kind(), mayPulse);
+    }
+
+    /**
+     * 获取已解析的指令视图，首次调用时解析并缓存
+     *
+     * @return the parsed command
+     */
+    public PowerBoxCommand getParsedCommand() {
+        PowerBoxCommand parsed = command;
+        if (parsed == null) {
+            parsed = PowerBoxCommand.parse(message);
+            command = parsed;
+        }
+        return parsed;
     }
 
     /**
@@ -169,54 +210,12 @@ public class PowerBoxData implements IData {
      * @param dataType the data type
      * @return the object [ ]
      */
-    @SuppressWarnings("DuplicatedCode")
     public Object[] getArgsArrayByPointing(PowerBoxDataType dataType) {
         if(message == null || message.isEmpty()) {
             return null;
         }
-        String[] args = message.split("-");
-        switch(dataType) {
-            case STRENGTH: {
-                String[] arguments = args[1].split("\\+");
-                int argumentsLength = arguments.length;
-                switch (argumentsLength) {
-                    case 3:{
-                        int channel = Integer.parseInt(arguments[0]);
-                        int strengthChangePolicy = Integer.parseInt(arguments[1]);
-                        int value = Integer.parseInt(arguments[2]);
-                        return new Integer[]{channel, strengthChangePolicy, value};
-                    }
-                    case 4:{
-                        int AStrength = Integer.parseInt(arguments[0]);
-                        int BStrength = Integer.parseInt(arguments[1]);
-                        int ALimit = Integer.parseInt(arguments[2]);
-                        int BLimit = Integer.parseInt(arguments[3]);
-                        return new Integer[]{AStrength, BStrength, ALimit, BLimit};
-                    }
-                }
-            }
-            case PULSE: {
-                String channel = args[1].substring(0,1);
-                String[] DataList = getWaveformDataList(args[1]);
-                String[] dataList = new String[DataList.length + 1];
-                int i = 0;
-                dataList[i] = channel;
-                for(String str : DataList) {
-                    i++;
-                    dataList[i] = str;
-                }
-                return dataList;
-
-            }
-            case CLEAR: {
-                return new Integer[]{ Integer.parseInt(args[1]) };
-            }
-            case FEEDBACK:{
-                int arg = Integer.parseInt(args[1]);
-                return new Integer[]{ arg };
-            }
-            default: return null;
-        }
+        PowerBoxCommand parsed = getParsedCommand();
+        return toArgsArray(parsed.kind() == dataType ? parsed : PowerBoxCommand.parse(message, dataType));
     }
 
     /**
@@ -224,66 +223,91 @@ public class PowerBoxData implements IData {
      *
      * @return the object [ ]
      */
-    @SuppressWarnings("DuplicatedCode")
     public Object[] getArgsArray() {
         if(message == null || message.isEmpty()) {
             return null;
         }
-        String[] args = message.split("-");
-        switch(args[0]) {
+        return toArgsArray(getParsedCommand());
+    }
+
+    /**
+     * 直接读取整数参数，不分割字符串、不装箱<br/>
+     * 已有缓存的指令视图时从视图复制，否则直接扫描消息字符（不创建视图）
+     *
+     * @param dataType 期望的指令类型（{@link PowerBoxDataType#STRENGTH}, {@link PowerBoxDataType#CLEAR}, {@link PowerBoxDataType#FEEDBACK}）
+     * @param out      输出数组，超出长度的参数只计数不写入
+     * @return 参数个数，类型不符或存在非法整数时返回 -1
+     */
+    public int readIntArguments(PowerBoxDataType dataType, int[] out) {
+        PowerBoxCommand parsed = command;
+        if (parsed == null) {
+            return PowerBoxCommand.scanIntArguments(message, dataType, out);
+        }
+        if (parsed.kind() != dataType || !parsed.isNumeric()) return -1;
+        int count = parsed.argCount();
+        for (int i = 0, n = Math.min(count, out.length); i < n; i++) {
+            out[i] = parsed.getInt(i);
+        }
+        return count;
+    }
+
+    /**
+     * 读取强度改变指令（3参数）：通道{1->A, 2->B} + 策略模式 + 数值
+     *
+     * @param out 长度至少为3的输出数组
+     * @return 是否为3参数的强度指令
+     */
+    public boolean strengthChange(int[] out) {
+        return readIntArguments(PowerBoxDataType.STRENGTH, out) == 3;
+    }
+
+    /**
+     * 读取强度通知（4参数）：A通道目前强度 + B通道目前强度 + A通道强度上限 + B通道强度上限
+     *
+     * @param out 长度至少为4的输出数组
+     * @return 是否为4参数的强度指令
+     */
+    public boolean strengthInfo(int[] out) {
+        return readIntArguments(PowerBoxDataType.STRENGTH, out) == 4;
+    }
+
+    private static Object[] toArgsArray(PowerBoxCommand parsed) {
+        switch(parsed.kind()) {
             /* 强度 */
-            case "strength": {
-                String[] arguments = args[1].split("\\+");
-                int argumentsLength = arguments.length;
-                switch (argumentsLength) {
-                    /* 这个是客户端->指令中转服务器->App->PowerBox主机 */
-                    case 3:{
-                        int channel = Integer.parseInt(arguments[0]);
-                        int strengthChangePolicy = Integer.parseInt(arguments[1]);
-                        int value = Integer.parseInt(arguments[2]);
-                        /*=== 通道{1->A, 2->B} + 策略模式{0-减小, 1-增加 ,2-指定} + 数值 ===*/
-                        return new Integer[]{channel, strengthChangePolicy, value};
-                    }
-                    /* 这个是PowerBox主机->App->指令中转服务器->客户端 */
-                    case 4:{
-                        int AStrength = Integer.parseInt(arguments[0]);
-                        int BStrength = Integer.parseInt(arguments[1]);
-                        int ALimit = Integer.parseInt(arguments[2]);
-                        int BLimit = Integer.parseInt(arguments[3]);
-                        /*=== A通道目前强度 + B通道目前强度 + A通道强度上限 + B通道强度上限 ===*/
-                        return new Integer[]{AStrength, BStrength, ALimit, BLimit};
-                    }
+            case STRENGTH: {
+                /* 3个参数：客户端->指令中转服务器->App->PowerBox主机
+                 *=== 通道{1->A, 2->B} + 策略模式{0-减小, 1-增加 ,2-指定} + 数值 ===
+                 * 4个参数：PowerBox主机->App->指令中转服务器->客户端
+                 *=== A通道目前强度 + B通道目前强度 + A通道强度上限 + B通道强度上限 === */
+                int argumentsLength = parsed.argCount();
+                if ((argumentsLength != 3 && argumentsLength != 4) || !parsed.isNumeric()) return null;
+                Integer[] arguments = new Integer[argumentsLength];
+                for (int i = 0; i < argumentsLength; i++) {
+                    arguments[i] = parsed.getInt(i);
                 }
+                return arguments;
             }
             /* 波形 */
-            case "pulse": {
-                String channel = args[1].substring(0,1);
-                String[] DataList = getWaveformDataList(args[1]);
-                String[] dataList = new String[DataList.length + 1];
-                int i = 0;
+            case PULSE: {
+                if (!parsed.hasBody() || !parsed.hasFrames()) return null;
+                String[] dataList = new String[parsed.frameCount() + 1];
                 /* 频道 {A->A, B->B} */
-                dataList[i] = channel;
-                for(String str : DataList) {
-                    i++;
+                dataList[0] = parsed.source().substring(parsed.bodyStart(), parsed.bodyStart() + 1);
+                for (int i = 0; i < parsed.frameCount(); i++) {
                     /* 一段波形数据如 1122334455667788 */
                     /* 解释为：
-                    *    第0~25ms频率,第25~50ms频率, 第50~75ms频率, 第75~100ms频率:  0x11, 0x22, 0x33 0x44
-                    *    第0~25ms强度,第25~50ms强度, 第50~75ms强度, 第75~100ms强度:  0x55, 0x66, 0x77 0x88
-                    * */
-                    dataList[i] = str;
+                     *    第0~25ms频率,第25~50ms频率, 第50~75ms频率, 第75~100ms频率:  0x11, 0x22, 0x33 0x44
+                     *    第0~25ms强度,第25~50ms强度, 第50~75ms强度, 第75~100ms强度:  0x55, 0x66, 0x77 0x88
+                     * */
+                    dataList[i + 1] = parsed.frame(i);
                 }
                 return dataList;
-
             }
-            /* 清空波形 */
-            case "clear": {
-                /* 通道{1->A, 2->B} */
-                return new Integer[]{ Integer.parseInt(args[1]) };
-            }
-            /* 反馈 */
-            case "feedback":{
-                /* 拟定不同形状图标代表的感受状态 */
-                return new Integer[]{ Integer.parseInt(args[1]) };
+            /* 清空波形: 通道{1->A, 2->B} */
+            /* 反馈: 拟定不同形状图标代表的感受状态 */
+            case CLEAR, FEEDBACK: {
+                if (parsed.argCount() < 1 || !parsed.isNumeric()) return null;
+                return new Integer[]{ parsed.getInt(0) };
             }
             default: return null;
         }
@@ -299,81 +323,20 @@ public class PowerBoxData implements IData {
         if(command == null || command.isEmpty()) {
             return false;
         }
-        String[] args = command.split("-");
-        try {
-            switch(args[0]) {
-                case "strength": {
-                    String[] arguments = args[1].split("\\+");
-                    int argumentsLength = arguments.length;
-                    switch (argumentsLength) {
-                        case 3:{
-                            int channel = Integer.parseInt(arguments[0]);
-                            if(channel != 1 && channel != 2) throw new IllegalArgumentException("Channel must be 1 or 2");
-                            int strengthChangePolicy = Integer.parseInt(arguments[1]);
-                            if(2 < strengthChangePolicy || strengthChangePolicy < 0) throw new IllegalArgumentException("Strength change policy must in the range of [0,2]");
-                            int value = Integer.parseInt(arguments[2]);
-                            if (value < 0 || value > 200) throw new IllegalArgumentException("Value must be between 0 and 200");
-                            return true;
-                        }
-                        case 4:{
-                            return true;//App发来的数据应该不会有问题（如果有也不是我的锅（））
-                        }
-                        default: throw new IllegalArgumentException("Invalid number of arguments");
-                    }
-                }
-                case "pulse": {
-                    String channel = args[1].substring(0,1);
-                    if(!(channel.equals("A") || channel.equals("B"))) throw new IllegalArgumentException("Channel is incorrect or lacked.");
-                    String[] DataList = getWaveformDataList(args[1]);
-                    Pattern pattern = Pattern.compile("^[a-zA-Z0-9]{16}$");//检查是否为16进制数字（大小写都可以）
-                    if (DataList.length > 100) throw new IllegalArgumentException("The list of Waveform data is too long.");
-                    for(String str : DataList) {
-                        if(str.length() != 16) {
-                            throw new IllegalArgumentException("Find list has a the invalid length of waveform data.");
-                        }
-                        Matcher matcher = pattern.matcher(str);
-                        if (!matcher.matches()) {
-                            throw new NumberFormatException("Find list has a incorrect syntax of waveform data.");
-                        }
-                    }
-                    return true;
-                }
-                case "clear": {
-                    String arg = args[1];
-                    if(args.length != 2) throw new IllegalArgumentException("Invalid number of arguments");
-                    if(!Objects.equals(arg, "1") && !Objects.equals(arg, "2")) throw new IllegalArgumentException("The argument must be 1 or 2");
-                    return true;
-                }
-                case "feedback":{
-                    int arg = Integer.parseInt(args[1]);
-                    if(args.length != 2) throw new IllegalArgumentException("Invalid number of arguments");
-                    if(0 > arg || arg > 10) throw new IllegalArgumentException("args must be between 0 and 10");
-                    return true;
-                }
-                default: throw new IllegalArgumentException("Invalid command");
-            }
-        } catch (Exception e) {
-            inValidReason.set(e.getMessage());
-            return false;//指令不正确，直接否
-        }
+        return checkCommand(command).isValid();
     }
 
     /**
-     * Get waveform data list string [ ].
+     * 校验指令并返回结果码，不抛出异常
      *
-     * @param msg the msg
-     * @return the string [ ]
+     * @param command the command
+     * @return 校验结果
      */
-    String[] getWaveformDataList(String msg) {
-        String dataList = msg.substring(msg.indexOf('[') + 1, msg.indexOf(']'));
-        String[] rawStringList = dataList.split(",");
-        ArrayList<String> list = new ArrayList<>();
-        Arrays.stream(rawStringList).forEach(rawString -> {
-            list.add(rawString.replaceAll("\"", ""));
-        });
-        String[] result = new String[list.size()];
-        list.toArray(result);
-        return result;
+    public ValidationCode checkCommand(String command) {
+        if(command == null || command.isEmpty()) {
+            return ValidationCode.EMPTY_COMMAND;
+        }
+        return CommandValidator.validate(Objects.equals(command, message) ? getParsedCommand() : PowerBoxCommand.parse(command));
     }
 
 }
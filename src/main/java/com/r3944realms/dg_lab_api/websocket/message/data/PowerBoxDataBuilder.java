@@ -0,0 +1,589 @@
+/*******************************************************************************
+ * Copyright (c) 2024-2025 R3944Realms. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.r3944realms.dg_lab_api.websocket.message.data;
+
+import com.r3944realms.dg_lab_api.dataType.PowerBoxCommands;
+import com.r3944realms.dg_lab_api.dataType.PowerBoxMsgType;
+import com.r3944realms.dg_lab_api.message.IPowerBoxMsg;
+import com.r3944realms.dg_lab_api.message.argType.ChangePolicy;
+import com.r3944realms.dg_lab_api.message.argType.Channel;
+import com.r3944realms.dg_lab_api.message.data.CompressedPulseWaveList;
+import com.r3944realms.dg_lab_api.message.data.HexCodec;
+import com.r3944realms.dg_lab_api.message.data.ImmutablePulseWaveList;
+import com.r3944realms.dg_lab_api.message.data.PackedPulseWaveList;
+import com.r3944realms.dg_lab_api.message.data.PulseWave;
+import com.r3944realms.dg_lab_api.message.data.PulseWaveList;
+import com.r3944realms.dg_lab_api.websocket.message.codec.Utf8JsonEncoder;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * 可复用的 {@link PowerBoxData} 构建器，直接以 UTF-8 写入输出缓冲区<br/>
+ * 指令以参数形式保存，写入时才编码，不拼接中间字符串，也不创建 {@link PowerBoxData}；
+ * 波形只引用调用方的列表，在写入完成前不应修改；{@link ImmutablePulseWaveList} 直接写入其缓存的指令编码。
+ * 输出与对应 {@link IPowerBoxMsg#toPowerBoxData(String, String)} 经
+ * {@link com.r3944realms.dg_lab_api.websocket.message.data.adapter.PowerBoxDataCodec#write(ByteBuffer, PowerBoxData, boolean)} 的结果逐字节一致。<br/>
+ * 实例非线程安全，应限定在单个线程内使用，可配合 {@link Pool} 复用。
+ */
+public final class PowerBoxDataBuilder {
+    private static final byte[] TYPE = Utf8JsonEncoder.encodeName("type");
+    private static final byte[] CLIENT_ID = Utf8JsonEncoder.encodeName("clientId");
+    private static final byte[] TARGET_ID = Utf8JsonEncoder.encodeName("targetId");
+    private static final byte[] MESSAGE = Utf8JsonEncoder.encodeName("message");
+    private static final byte[] TIMER = Utf8JsonEncoder.encodeName("timer");
+    private static final byte[] STRENGTH = ascii(PowerBoxCommands.STRENGTH + "-");
+    private static final byte[] CLEAR = ascii(PowerBoxCommands.CLEAR + "-");
+    private static final byte[] FEEDBACK = ascii(PowerBoxCommands.FEEDBACK + "-");
+    private static final byte[] PULSE = ascii(PowerBoxCommands.PULSE + "-");
+    private static final byte[] ESCAPED_QUOTE = {'\\', '"'};
+    private static final byte[] FIXED_QUOTE = {'"'};
+
+    private static final int NONE = 0;
+    private static final int RAW = 1;
+    private static final int ARGS = 2;
+    private static final int PULSE_WAVES = 3;
+    private static final int PULSE_PACKED = 4;
+    private static final int PULSE_ARRAY = 5;
+    private static final int PULSE_COMPRESSED = 6;
+
+    @Nullable
+    private String type;
+    @Nullable
+    private String clientId;
+    @Nullable
+    private String targetId;
+
+    private int kind;
+    @Nullable
+    private CharSequence raw;
+    private byte[] prefix;
+    private String prefixString;
+    private final int[] args = new int[4];
+    private int argCount;
+    private Channel channel;
+    @Nullable
+    private ImmutablePulseWaveList frozen;
+    @Nullable
+    private List<PulseWave> waves;
+    @Nullable
+    private PackedPulseWaveList packed;
+    @Nullable
+    private long[] frames;
+    @Nullable
+    private CompressedPulseWaveList compressed;
+    @Nullable
+    private long[] scratch;
+    private int frameOffset;
+    private int frameCount;
+
+    private boolean hasTimer;
+    private int timer;
+
+    private static byte[] ascii(String value) {
+        byte[] bytes = new byte[value.length()];
+        for (int i = 0; i < bytes.length; i++) bytes[i] = (byte) value.charAt(i);
+        return bytes;
+    }
+
+    /**
+     * 清空全部字段以便复用
+     *
+     * @return this
+     */
+    public PowerBoxDataBuilder reset() {
+        type = clientId = targetId = null;
+        clearMessage();
+        hasTimer = false;
+        timer = 0;
+        return this;
+    }
+
+    private void clearMessage() {
+        kind = NONE;
+        raw = null;
+        prefix = null;
+        prefixString = null;
+        argCount = 0;
+        channel = null;
+        frozen = null;
+        waves = null;
+        packed = null;
+        frames = null;
+        compressed = null;
+        frameOffset = frameCount = 0;
+    }
+
+    /**
+     * 设置消息类型，见 {@link PowerBoxMsgType}
+     *
+     * @param type the type
+     * @return this
+     */
+    public PowerBoxDataBuilder type(@Nullable String type) {
+        this.type = type;
+        return this;
+    }
+
+    /**
+     * 设置收发双方
+     *
+     * @param clientId the client id
+     * @param targetId the target id
+     * @return this
+     */
+    public PowerBoxDataBuilder ids(@Nullable String clientId, @Nullable String targetId) {
+        this.clientId = clientId;
+        this.targetId = targetId;
+        return this;
+    }
+
+    /**
+     * 设置附加的 timer 字段
+     *
+     * @param timer the timer
+     * @return this
+     */
+    public PowerBoxDataBuilder timer(int timer) {
+        this.hasTimer = true;
+        this.timer = timer;
+        return this;
+    }
+
+    /**
+     * 直接设置 message 原文
+     *
+     * @param message the message
+     * @return this
+     */
+    public PowerBoxDataBuilder message(@Nullable CharSequence message) {
+        clearMessage();
+        if (message != null) {
+            kind = RAW;
+            raw = message;
+        }
+        return this;
+    }
+
+    /**
+     * 强度变更 <code>strength-通道+模式+数值</code>，类型为 msg
+     *
+     * @param channel the channel
+     * @param policy  the policy
+     * @param value   the value
+     * @return this
+     */
+    public PowerBoxDataBuilder strengthChange(Channel channel, ChangePolicy policy, int value) {
+        return command(PowerBoxMsgType.MSG_COMMAND, STRENGTH, PowerBoxCommands.STRENGTH, 3, channel.index_int, policy.index, value, 0);
+    }
+
+    /**
+     * 强度信息 <code>strength-A+B+A上限+B上限</code>，类型为 msg
+     *
+     * @param aValue the a value
+     * @param bValue the b value
+     * @param aMax   the a max
+     * @param bMax   the b max
+     * @return this
+     */
+    public PowerBoxDataBuilder strengthInfo(int aValue, int bValue, int aMax, int bMax) {
+        return command(PowerBoxMsgType.MSG_COMMAND, STRENGTH, PowerBoxCommands.STRENGTH, 4, aValue, bValue, aMax, bMax);
+    }
+
+    /**
+     * 清空波形队列 <code>clear-通道</code>，类型为 msg
+     *
+     * @param channel the channel
+     * @return this
+     */
+    public PowerBoxDataBuilder clear(Channel channel) {
+        return command(PowerBoxMsgType.MSG_COMMAND, CLEAR, PowerBoxCommands.CLEAR, 1, channel.index_int, 0, 0, 0);
+    }
+
+    /**
+     * 按钮反馈 <code>feedback-序号</code>，类型为 msg
+     *
+     * @param feedback the feedback
+     * @return this
+     */
+    public PowerBoxDataBuilder feedback(int feedback) {
+        return command(PowerBoxMsgType.MSG_COMMAND, FEEDBACK, PowerBoxCommands.FEEDBACK, 1, feedback, 0, 0, 0);
+    }
+
+    private PowerBoxDataBuilder command(String type, byte[] prefix, String prefixString, int count, int a, int b, int c, int d) {
+        clearMessage();
+        // msg 指令不带 timer，清除之前波形留下的默认值
+        this.hasTimer = false;
+        this.timer = 0;
+        this.type = type;
+        this.kind = ARGS;
+        this.prefix = prefix;
+        this.prefixString = prefixString;
+        this.argCount = count;
+        args[0] = a;
+        args[1] = b;
+        args[2] = c;
+        args[3] = d;
+        return this;
+    }
+
+    /**
+     * 波形 <code>pulse-通道:["...",...]</code>，类型为 clientMsg，timer 默认为0
+     *
+     * @param channel the channel
+     * @param waves   波形（仅引用）
+     * @return this
+     */
+    public PowerBoxDataBuilder pulse(Channel channel, PulseWaveList waves) {
+        pulse(channel, PULSE_WAVES);
+        this.frozen = waves instanceof ImmutablePulseWaveList immutable ? immutable : null;
+        this.waves = waves.getList();
+        this.frameCount = this.waves.size();
+        return this;
+    }
+
+    /**
+     * 波形 <code>pulse-通道:["...",...]</code>，类型为 clientMsg，timer 默认为0
+     *
+     * @param channel the channel
+     * @param waves   波形（仅引用）
+     * @return this
+     */
+    public PowerBoxDataBuilder pulse(Channel channel, PackedPulseWaveList waves) {
+        pulse(channel, PULSE_PACKED);
+        this.packed = waves;
+        this.frameCount = waves.size();
+        return this;
+    }
+
+    /**
+     * 波形 <code>pulse-通道:["...",...]</code>，类型为 clientMsg，timer 默认为0
+     *
+     * @param channel 通道
+     * @param frames  打包后的波形帧（仅引用），见 {@link com.r3944realms.dg_lab_api.message.data.PackedPulseWave}
+     * @param offset  起始下标
+     * @param length  帧数
+     * @return this
+     */
+    public PowerBoxDataBuilder pulse(Channel channel, long[] frames, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, frames.length);
+        pulse(channel, PULSE_ARRAY);
+        this.frames = frames;
+        this.frameOffset = offset;
+        this.frameCount = length;
+        return this;
+    }
+
+    /**
+     * 波形 <code>pulse-通道:["...",...]</code>，类型为 clientMsg，timer 默认为0；写入时按块解压，不展开整个列表
+     *
+     * @param channel the channel
+     * @param waves   压缩的波形（仅引用）
+     * @return this
+     */
+    public PowerBoxDataBuilder pulse(Channel channel, CompressedPulseWaveList waves) {
+        pulse(channel, PULSE_COMPRESSED);
+        this.compressed = waves;
+        this.frameCount = waves.size();
+        return this;
+    }
+
+    private void pulse(Channel channel, int kind) {
+        clearMessage();
+        this.type = PowerBoxMsgType.CLIENT_MSG;
+        this.kind = kind;
+        this.channel = channel;
+        if (!hasTimer) timer(0);
+    }
+
+    private long frame(int index) {
+        return switch (kind) {
+            case PULSE_WAVES -> waves.get(index).toPacked();
+            case PULSE_PACKED -> packed.get(index);
+            default -> frames[frameOffset + index];
+        };
+    }
+
+    /**
+     * 由 {@link IPowerBoxMsg} 设置内容，内置类型不经过 {@link IPowerBoxMsg#toPowerBoxData(String, String)}
+     *
+     * @param msg      the msg
+     * @param clientId the client id
+     * @param targetId the target id
+     * @return this
+     */
+    public PowerBoxDataBuilder set(IPowerBoxMsg msg, @Nullable String clientId, @Nullable String targetId) {
+        reset();
+        ids(clientId, targetId);
+        if (msg instanceof IPowerBoxMsg.StrengthChange change) {
+            return strengthChange(change.channel(), change.policy(), change.value());
+        } else if (msg instanceof IPowerBoxMsg.StrengthInfo info) {
+            return strengthInfo(info.aValue(), info.bValue(), info.aMax(), info.bMax());
+        } else if (msg instanceof IPowerBoxMsg.Clear clear) {
+            return clear(clear.channel());
+        } else if (msg instanceof IPowerBoxMsg.Feedback feedback) {
+            return feedback(feedback.feedback());
+        } else if (msg instanceof IPowerBoxMsg.Pulse pulse) {
+            pulse(pulse.channel(), pulse.pulseWaveList());
+            hasTimer = pulse.timer() != null;
+            timer = hasTimer ? pulse.timer() : 0;
+            return this;
+        }
+        return set(msg.toPowerBoxData(clientId, targetId));
+    }
+
+    /**
+     * 复制已有数据
+     *
+     * @param data the data
+     * @return this
+     */
+    public PowerBoxDataBuilder set(PowerBoxData data) {
+        reset();
+        type(data.getType()).ids(data.getClientId(), data.getTargetId()).message(data.getMessage());
+        if (data instanceof PowerBoxDataWithSingleAttachment single && single.getTimer() != null) timer(single.getTimer());
+        return this;
+    }
+
+    /**
+     * 以 UTF-8 JSON 写入缓冲区
+     *
+     * @param buffer 目标缓冲区（从当前 position 开始写入）
+     * @return 写入的字节数
+     * @throws java.nio.BufferOverflowException 缓冲区空间不足
+     */
+    public int writeTo(ByteBuffer buffer) {
+        return writeTo(buffer, false);
+    }
+
+    /**
+     * 以 UTF-8 JSON 写入缓冲区
+     *
+     * @param buffer 目标缓冲区（从当前 position 开始写入）
+     * @param fix    是否去掉转义用的反斜杠
+     * @return 写入的字节数
+     * @throws java.nio.BufferOverflowException 缓冲区空间不足
+     */
+    public int writeTo(ByteBuffer buffer, boolean fix) {
+        int start = buffer.position();
+        buffer.put((byte) '{');
+        boolean first = writeField(buffer, TYPE, type, fix, true);
+        first = writeField(buffer, CLIENT_ID, clientId, fix, first);
+        first = writeField(buffer, TARGET_ID, targetId, fix, first);
+        if (kind != NONE) {
+            if (!first) buffer.put((byte) ',');
+            buffer.put(MESSAGE);
+            writeMessage(buffer, fix);
+            first = false;
+        }
+        if (hasTimer) {
+            if (!first) buffer.put((byte) ',');
+            buffer.put(TIMER);
+            Utf8JsonEncoder.writeInt(buffer, timer);
+        }
+        buffer.put((byte) '}');
+        return buffer.position() - start;
+    }
+
+    private static boolean writeField(ByteBuffer buffer, byte[] name, @Nullable String value, boolean fix, boolean first) {
+        if (value == null) return first;
+        if (!first) buffer.put((byte) ',');
+        buffer.put(name);
+        Utf8JsonEncoder.writeString(buffer, value, fix);
+        return false;
+    }
+
+    private void writeMessage(ByteBuffer buffer, boolean fix) {
+        switch (kind) {
+            case RAW -> Utf8JsonEncoder.writeString(buffer, raw, fix);
+            case ARGS -> {
+                buffer.put((byte) '"').put(prefix);
+                for (int i = 0; i < argCount; i++) {
+                    if (i > 0) buffer.put((byte) '+');
+                    Utf8JsonEncoder.writeInt(buffer, args[i]);
+                }
+                buffer.put((byte) '"');
+            }
+            default -> {
+                if (frozen != null) {
+                    frozen.writeCommandJson(buffer, channel, fix);
+                    return;
+                }
+                byte[] quote = fix ? FIXED_QUOTE : ESCAPED_QUOTE;
+                buffer.put((byte) '"').put(PULSE).put((byte) channel.index_char).put((byte) ':').put((byte) '[');
+                if (kind == PULSE_COMPRESSED) {
+                    writeCompressedFrames(buffer, quote);
+                } else {
+                    for (int i = 0; i < frameCount; i++) {
+                        if (i > 0) buffer.put((byte) ',');
+                        buffer.put(quote);
+                        HexCodec.encode(frame(i), buffer);
+                        buffer.put(quote);
+                    }
+                }
+                buffer.put((byte) ']').put((byte) '"');
+            }
+        }
+    }
+
+    private long[] scratch() {
+        long[] chunk = scratch;
+        if (chunk == null) scratch = chunk = new long[CompressedPulseWaveList.BLOCK_FRAMES];
+        return chunk;
+    }
+
+    private void writeCompressedFrames(ByteBuffer buffer, byte[] quote) {
+        long[] chunk = scratch();
+        for (int from = 0; from < frameCount; from += chunk.length) {
+            int count = compressed.decode(from, chunk, 0, chunk.length);
+            for (int i = 0; i < count; i++) {
+                if (from + i > 0) buffer.put((byte) ',');
+                buffer.put(quote);
+                HexCodec.encode(chunk[i], buffer);
+                buffer.put(quote);
+            }
+        }
+    }
+
+    /**
+     * 以 UTF-8 JSON 编码
+     *
+     * @return the byte [ ]
+     */
+    public byte[] toBytes() {
+        int capacity = 128 + frameCount * (HexCodec.FRAME_LENGTH + 5);
+        // 转义后每个字符最多6字节
+        if (raw != null) capacity += raw.length() * 6;
+        if (type != null) capacity += type.length() * 6;
+        if (clientId != null) capacity += clientId.length() * 6;
+        if (targetId != null) capacity += targetId.length() * 6;
+        ByteBuffer buffer = ByteBuffer.allocate(capacity);
+        writeTo(buffer);
+        byte[] bytes = new byte[buffer.position()];
+        buffer.flip().get(bytes);
+        return bytes;
+    }
+
+    /**
+     * 构建 message 文本
+     *
+     * @return message，未设置时为 null
+     */
+    @Nullable
+    public String messageString() {
+        return switch (kind) {
+            case NONE -> null;
+            case RAW -> raw.toString();
+            case ARGS -> {
+                StringBuilder builder = new StringBuilder(32).append(prefixString).append('-');
+                for (int i = 0; i < argCount; i++) {
+                    if (i > 0) builder.append('+');
+                    builder.append(args[i]);
+                }
+                yield builder.toString();
+            }
+            default -> {
+                if (frozen != null) yield frozen.toCommand(channel);
+                char[] chars = new char[PULSE.length + 3 + Math.max(1, frameCount * (HexCodec.FRAME_LENGTH + 3))];
+                int pos = 0;
+                for (byte b : PULSE) chars[pos++] = (char) b;
+                chars[pos++] = channel.index_char;
+                chars[pos++] = ':';
+                chars[pos++] = '[';
+                if (kind == PULSE_COMPRESSED) {
+                    // 按块解压，避免逐帧随机访问
+                    long[] chunk = scratch();
+                    for (int from = 0; from < frameCount; from += chunk.length) {
+                        int count = compressed.decode(from, chunk, 0, chunk.length);
+                        for (int i = 0; i < count; i++) pos = appendFrame(chars, pos, from + i, chunk[i]);
+                    }
+                } else {
+                    for (int i = 0; i < frameCount; i++) pos = appendFrame(chars, pos, i, frame(i));
+                }
+                chars[pos++] = ']';
+                yield new String(chars, 0, pos);
+            }
+        };
+    }
+
+    private static int appendFrame(char[] chars, int pos, int index, long frame) {
+        if (index > 0) chars[pos++] = ',';
+        chars[pos++] = '"';
+        HexCodec.encode(frame, chars, pos);
+        pos += HexCodec.FRAME_LENGTH;
+        chars[pos++] = '"';
+        return pos;
+    }
+
+    /**
+     * 构建 {@link PowerBoxData}（设置了 timer 时为 {@link PowerBoxDataWithSingleAttachment}），用于非热点路径
+     *
+     * @return the power box data
+     */
+    public PowerBoxData build() {
+        PowerBoxData data = new PowerBoxData(type, clientId, targetId, messageString());
+        return hasTimer ? data.withSingleAttachment(timer) : data;
+    }
+
+    /**
+     * 有界的构建器池，取出的构建器已重置；池满时归还的构建器直接丢弃
+     */
+    public static final class Pool {
+        private final ArrayBlockingQueue<PowerBoxDataBuilder> queue;
+
+        /**
+         * Instantiates a new Pool.
+         *
+         * @param capacity 最多保留的构建器数量
+         */
+        public Pool(int capacity) {
+            if (capacity <= 0) throw new IllegalArgumentException("capacity must be positive");
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+
+        /**
+         * 取出一个构建器，池为空时新建
+         *
+         * @return the power box data builder
+         */
+        public PowerBoxDataBuilder acquire() {
+            PowerBoxDataBuilder builder = queue.poll();
+            return builder != null ? builder : new PowerBoxDataBuilder();
+        }
+
+        /**
+         * 归还构建器
+         *
+         * @param builder the builder
+         */
+        public void release(PowerBoxDataBuilder builder) {
+            queue.offer(builder.reset());
+        }
+
+        /**
+         * 当前池中的构建器数量
+         *
+         * @return the int
+         */
+        public int size() {
+            return queue.size();
+        }
+    }
+}
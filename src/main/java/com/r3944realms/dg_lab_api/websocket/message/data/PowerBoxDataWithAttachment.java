@@ -39,6 +39,7 @@ public class PowerBoxDataWithAttachment extends PowerBoxData {
      */
     public PowerBoxDataWithAttachment(PowerBoxData parent,@Nullable Integer timer_A,@Nullable Integer timer_B) {
         super(parent.getType(), parent.getClientId(), parent.getTargetId(), parent.getMessage());
+        this.command = parent.command;
         this.timer_A = timer_A;
         this.timer_B = timer_B;
     }
@@ -33,6 +33,7 @@ public class PowerBoxDataWithSingleAttachment extends PowerBoxData {
      */
     public PowerBoxDataWithSingleAttachment(PowerBoxData parent,@Nullable Integer timer) {
         super(parent.getType(), parent.getClientId(), parent.getTargetId(), parent.getMessage());
+        this.command = parent.command;
         this.timer = timer;
     }
 
@@ -16,69 +16,27 @@
 
 package com.r3944realms.dg_lab_api.websocket.message.data.adapter;
 
-import com.google.gson.*;
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
 import com.google.gson.reflect.TypeToken;
-import com.google.gson.stream.JsonReader;
-import com.google.gson.stream.JsonWriter;
 import com.r3944realms.dg_lab_api.websocket.message.data.IData;
 import com.r3944realms.dg_lab_api.websocket.message.data.PowerBoxData;
-import com.r3944realms.dg_lab_api.websocket.message.data.PowerBoxDataWithAttachment;
-import com.r3944realms.dg_lab_api.websocket.message.data.PowerBoxDataWithSingleAttachment;
-
-import java.io.IOException;
 
 /**
- * The type Data type adapter factory.
+ * The type Data type adapter factory.<br/>
+ * {@link IData} 及 {@link PowerBoxData} 系列统一交由 {@link PowerBoxDataCodec} 流式处理，
+ * 其余 {@link IData} 实现沿用 Gson 默认的反射适配。
  */
-@SuppressWarnings("deprecation")
 public class IDataTypeAdapterFactory implements TypeAdapterFactory {
 
     @Override
     @SuppressWarnings("unchecked")
     public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> typeToken) {
-        if(!IData.class.isAssignableFrom(typeToken.getRawType())) {
+        Class<? super T> rawType = typeToken.getRawType();
+        if(rawType != IData.class && !PowerBoxData.class.isAssignableFrom(rawType)) {
             return null;
         }
-        final TypeAdapter<JsonElement> elementAdapter = gson.getAdapter(JsonElement.class);
-        final TypeAdapter<PowerBoxData> powerBoxDataAdapter = gson.getDelegateAdapter(this, TypeToken.get(PowerBoxData.class));
-        final TypeAdapter<PowerBoxDataWithAttachment> powerBoxDataWithAttachmentAdapter = gson.getDelegateAdapter(this, TypeToken.get(PowerBoxDataWithAttachment.class));
-        final TypeAdapter<PowerBoxDataWithSingleAttachment> powerBoxDataWithSingleAttachmentTypeAdapter = gson.getDelegateAdapter(this, TypeToken.get(PowerBoxDataWithSingleAttachment.class));
-        return (TypeAdapter<T>) new TypeAdapter<IData>() {
-            @Override
-            public void write(JsonWriter jsonWriter, IData iData) throws IOException {
-                JsonElement jsonElement = switch (iData.getClass().getSimpleName()) {
-                    case "PowerBoxDataWithAttachment" ->
-                            powerBoxDataWithAttachmentAdapter.toJsonTree((PowerBoxDataWithAttachment) iData);
-                    case "PowerBoxDataWithSingleAttachment" ->
-                            powerBoxDataWithSingleAttachmentTypeAdapter.toJsonTree((PowerBoxDataWithSingleAttachment) iData);
-                    case "PowerBoxData" -> powerBoxDataAdapter.toJsonTree((PowerBoxData) iData);
-                    case "null" ->
-                            throw new NullPointerException("IDataTypeAdapterFactory#create(Gson gson, TypeToken iData): null");
-                    default -> throw new JsonSyntaxException("Unsupported data type: " + iData.getClass().getName());
-                };
-                elementAdapter.write(jsonWriter, jsonElement);
-            }
-
-            @Override
-            public IData read(JsonReader jsonReader) throws IOException {
-                JsonElement element = elementAdapter.read(jsonReader);
-                JsonObject jsonObject = element.getAsJsonObject();
-
-                JsonElement type = jsonObject.get("type");
-
-                String Eigenvalues_A = type.getAsString();
-                switch (Eigenvalues_A) {
-                    case "heartbeat", "error", "msg", "break", "bind" -> {
-                        return powerBoxDataAdapter.fromJsonTree(element);
-                    }
-                    case "clientMsg" -> {
-                        return powerBoxDataWithSingleAttachmentTypeAdapter.fromJsonTree(element);
-                    }
-                    default -> throw new JsonParseException("Unknown type");
-
-                }
-            }
-        };
-
+        return (TypeAdapter<T>) new PowerBoxDataCodec(rawType);
     }
 }
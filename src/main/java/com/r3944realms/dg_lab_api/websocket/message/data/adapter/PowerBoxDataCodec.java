@@ -0,0 +1,188 @@
+/*******************************************************************************
+ * Copyright (c) 2024-2025 R3944Realms. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.r3944realms.dg_lab_api.websocket.message.data.adapter;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.r3944realms.dg_lab_api.websocket.message.codec.Utf8JsonEncoder;
+import com.r3944realms.dg_lab_api.websocket.message.data.PowerBoxData;
+import com.r3944realms.dg_lab_api.websocket.message.data.PowerBoxDataWithAttachment;
+import com.r3944realms.dg_lab_api.websocket.message.data.PowerBoxDataWithSingleAttachment;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * PowerBoxData 流式编解码器<br/>
+ * 直接在 {@link JsonReader}/{@link JsonWriter} 上单次读写，不构建 {@link com.google.gson.JsonElement} 树。
+ * 读取时字段顺序不限，结束后根据 "type" 字段选择具体子类型：
+ * <ul>
+ * <li>heartbeat, error, msg, break, bind -> {@link PowerBoxData}</li>
+ * <li>clientMsg -> {@link PowerBoxDataWithSingleAttachment}</li>
+ * </ul>
+ * 若显式请求的是附加类型（如 {@link PowerBoxDataWithSingleAttachment}），则始终返回该类型。<br/>
+ * 另提供 {@link #write(ByteBuffer, PowerBoxData, boolean)} 直接输出 UTF-8 字节。
+ */
+@SuppressWarnings("deprecation")
+public class PowerBoxDataCodec extends TypeAdapter<PowerBoxData> {
+    private static final byte[] TYPE = Utf8JsonEncoder.encodeName("type");
+    private static final byte[] CLIENT_ID = Utf8JsonEncoder.encodeName("clientId");
+    private static final byte[] TARGET_ID = Utf8JsonEncoder.encodeName("targetId");
+    private static final byte[] MESSAGE = Utf8JsonEncoder.encodeName("message");
+    private static final byte[] TIMER = Utf8JsonEncoder.encodeName("timer");
+    private static final byte[] TIMER_A = Utf8JsonEncoder.encodeName("timer_A");
+    private static final byte[] TIMER_B = Utf8JsonEncoder.encodeName("timer_B");
+    private final Class<?> requestedType;
+
+    /**
+     * Instantiates a new Power box data codec.
+     */
+    public PowerBoxDataCodec() {
+        this(PowerBoxData.class);
+    }
+
+    /**
+     * Instantiates a new Power box data codec.
+     *
+     * @param requestedType 反序列化时请求的类型
+     */
+    public PowerBoxDataCodec(Class<?> requestedType) {
+        this.requestedType = requestedType;
+    }
+
+    @Override
+    public void write(JsonWriter out, PowerBoxData value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("type").value(value.getType());
+        out.name("clientId").value(value.getClientId());
+        out.name("targetId").value(value.getTargetId());
+        out.name("message").value(value.getMessage());
+        if (value instanceof PowerBoxDataWithSingleAttachment single) {
+            out.name("timer").value(single.getTimer());
+        } else if (value instanceof PowerBoxDataWithAttachment attachment) {
+            out.name("timer_A").value(attachment.getTimerA());
+            out.name("timer_B").value(attachment.getTimerB());
+        }
+        out.endObject();
+    }
+
+    @Override
+    public PowerBoxData read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        String type = null;
+        String clientId = null;
+        String targetId = null;
+        String message = null;
+        Integer timer = null;
+        Integer timer_A = null;
+        Integer timer_B = null;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "type" -> type = nextString(in);
+                case "clientId" -> clientId = nextString(in);
+                case "targetId" -> targetId = nextString(in);
+                case "message" -> message = nextString(in);
+                case "timer" -> timer = nextInteger(in);
+                case "timer_A" -> timer_A = nextInteger(in);
+                case "timer_B" -> timer_B = nextInteger(in);
+                default -> in.skipValue(); // 忽略未知字段
+            }
+        }
+        in.endObject();
+
+        if (requestedType == PowerBoxDataWithSingleAttachment.class) {
+            return new PowerBoxDataWithSingleAttachment(new PowerBoxData(type, clientId, targetId, message), timer);
+        }
+        if (requestedType == PowerBoxDataWithAttachment.class) {
+            return new PowerBoxDataWithAttachment(new PowerBoxData(type, clientId, targetId, message), timer_A, timer_B);
+        }
+        if (type == null) {
+            throw new JsonParseException("Missing required field: type");
+        }
+        return switch (type) {
+            case "heartbeat", "error", "msg", "break", "bind" -> new PowerBoxData(type, clientId, targetId, message);
+            case "clientMsg" -> new PowerBoxDataWithSingleAttachment(new PowerBoxData(type, clientId, targetId, message), timer);
+            default -> throw new JsonParseException("Unknown type: " + type);
+        };
+    }
+
+    /**
+     * 直接以 UTF-8 写入，输出与 {@link #write(JsonWriter, PowerBoxData)} 经 Gson 序列化后的结果逐字节一致
+     *
+     * @param buffer 目标缓冲区
+     * @param value  数据
+     * @param fix    是否去掉转义用的反斜杠
+     */
+    public static void write(ByteBuffer buffer, PowerBoxData value, boolean fix) {
+        buffer.put((byte) '{');
+        boolean first = writeField(buffer, TYPE, value.getType(), fix, true);
+        first = writeField(buffer, CLIENT_ID, value.getClientId(), fix, first);
+        first = writeField(buffer, TARGET_ID, value.getTargetId(), fix, first);
+        first = writeField(buffer, MESSAGE, value.getMessage(), fix, first);
+        if (value instanceof PowerBoxDataWithSingleAttachment single) {
+            writeField(buffer, TIMER, single.getTimer(), first);
+        } else if (value instanceof PowerBoxDataWithAttachment attachment) {
+            first = writeField(buffer, TIMER_A, attachment.getTimerA(), first);
+            writeField(buffer, TIMER_B, attachment.getTimerB(), first);
+        }
+        buffer.put((byte) '}');
+    }
+
+    private static boolean writeField(ByteBuffer buffer, byte[] name, String value, boolean fix, boolean first) {
+        if (value == null) return first;
+        if (!first) buffer.put((byte) ',');
+        buffer.put(name);
+        Utf8JsonEncoder.writeString(buffer, value, fix);
+        return false;
+    }
+
+    private static boolean writeField(ByteBuffer buffer, byte[] name, Integer value, boolean first) {
+        if (value == null) return first;
+        if (!first) buffer.put((byte) ',');
+        buffer.put(name);
+        Utf8JsonEncoder.writeInt(buffer, value);
+        return false;
+    }
+
+    private static String nextString(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return in.nextString();
+    }
+
+    private static Integer nextInteger(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return in.nextInt();
+    }
+}
@@ -78,16 +78,31 @@ public enum PowerBoxDataType {
         this.NOP = minNumberOfParameters;
         this.MaxNOP = maxNumberOfParameters;
     }
-    private static PowerBoxDataType getCommandType(String commandPrefix) {
-        return switch (commandPrefix) {
-            case "strength" -> STRENGTH;
-            case "pulse" -> PULSE;
-            case "clear" -> CLEAR;
-            case "feedback" -> FEEDBACK;
+    /**
+     * 根据消息的指令前缀（第一个 '-' 之前的部分）获取指令类型，不分割字符串
+     *
+     * @param message the message
+     * @return the command type
+     */
+    public static PowerBoxDataType getCommandTypeFromMessage(CharSequence message) {
+        if (message == null) return UNKNOWN;
+        int length = message.length();
+        int end = 0;
+        while (end < length && message.charAt(end) != '-') end++;
+        return switch (end) {
+            case 5 -> prefixEquals(message, "pulse", 5) ? PULSE : prefixEquals(message, "clear", 5) ? CLEAR : UNKNOWN;
+            case 8 -> prefixEquals(message, "strength", 8) ? STRENGTH : prefixEquals(message, "feedback", 8) ? FEEDBACK : UNKNOWN;
             default -> UNKNOWN;
         };
     }
 
+    private static boolean prefixEquals(CharSequence message, String prefix, int length) {
+        for (int i = 0; i < length; i++) {
+            if (message.charAt(i) != prefix.charAt(i)) return false;
+        }
+        return true;
+    }
+
     /**
      * Gets type.
      *
@@ -108,16 +123,28 @@ public enum PowerBoxDataType {
      * @return the type
      */
     public static PowerBoxDataType getType(String type, String msg, boolean mayPulse) {
+        return switch (type) {
+            case "msg", "clientMsg" -> getType(type, getCommandTypeFromMessage(msg), mayPulse);
+            default -> getType(type, UNKNOWN, mayPulse);
+        };
+    }
+
+    /**
+     * Gets type.
+     *
+     * @param type        the type
+     * @param commandType 已解析出的指令类型（见 {@link #getCommandTypeFromMessage(CharSequence)}）
+     * @param mayPulse    the may pulse
+     * @return the type
+     */
+    public static PowerBoxDataType getType(String type, PowerBoxDataType commandType, boolean mayPulse) {
         return switch (type) {
             case "heartbeat" -> _NC_HEARTBEAT_;
             case "bind" -> _NC_BIND_;
-            case "msg" -> getCommandType(msg.split("-")[0]);
+            case "msg" -> commandType;
             case "break" -> _NC_BREAK_;
             case "error" -> _NC_ERROR_;
-            case "clientMsg" -> {
-                PowerBoxDataType commandType = getCommandType(msg.split("-")[0]);
-                yield mayPulse && commandType == PULSE ? PULSE : CLIENT_MESSAGE;
-            }
+            case "clientMsg" -> mayPulse && commandType == PULSE ? PULSE : CLIENT_MESSAGE;
             default -> UNKNOWN;
         };
     }
@@ -84,8 +84,24 @@ public enum PowerBoxStatusCode {
      * The Code.
      */
     final String code;
+    /**
+     * 整数形式的状态码
+     */
+    final int intCode;
+    /**
+     * 按整数状态码索引的查找表
+     */
+    private static final PowerBoxStatusCode[] BY_CODE = new PowerBoxStatusCode[1000];
+
+    static {
+        for (PowerBoxStatusCode statusCode : values()) {
+            if (statusCode.intCode >= 0) BY_CODE[statusCode.intCode] = statusCode;
+        }
+    }
+
     PowerBoxStatusCode(String code) {
         this.code = code;
+        this.intCode = Integer.parseInt(code);
     }
 
     /**
@@ -95,23 +111,35 @@ public enum PowerBoxStatusCode {
      * @return the status code
      */
     public static PowerBoxStatusCode getStatusCode(String code) {
-        return switch(code) {
-            case "200" -> PowerBoxStatusCode.SUCCESSFUL;
-            case "209" -> PowerBoxStatusCode.OPPOSITE_CLIENT_DISCONNECTED;
-            case "210" -> PowerBoxStatusCode.QR_CODE_HAS_A_INVALID_CLIENT_ID;
-            case "211" -> PowerBoxStatusCode.WAITING_FOR_SERVER_BINDING_MESSAGE_TOO_LONG;
-            case "400" -> PowerBoxStatusCode.TRYING_BINDING_ALREADY_BOUND_ID;
-            case "401" -> PowerBoxStatusCode.TARGET_CLIENT_NOT_EXIST;
-            case "402" -> PowerBoxStatusCode.NOT_BINDING_RELATIONSHIP;
-            case "403" -> PowerBoxStatusCode.NOT_STANDARD_JSON;
-            case "404" -> PowerBoxStatusCode.NOT_FOUND_BECAUSE_OF_OFFLINE;
-            case "405" -> PowerBoxStatusCode.MESSAGE_TOO_LONG;
-            case "406" -> PowerBoxStatusCode.NO_CHOOSE_CHANNEL;
-            case "500" -> PowerBoxStatusCode.INTERNAL_ERROR;
-            case "501" -> PowerBoxStatusCode.INVALID_REQUEST;
-            case "502" -> PowerBoxStatusCode.UNSUPPORTED_OPERATION;
-            default -> PowerBoxStatusCode.INVALID_STATUS_CODE;
-        };
+        return getStatusCode((CharSequence) code);
+    }
+
+    /**
+     * 解析3位数字的状态码，不产生中间对象
+     *
+     * @param code the code
+     * @return the status code
+     */
+    public static PowerBoxStatusCode getStatusCode(CharSequence code) {
+        if (code.length() != 3) return INVALID_STATUS_CODE;
+        int value = 0;
+        for (int i = 0; i < 3; i++) {
+            int digit = code.charAt(i) - '0';
+            if (digit < 0 || digit > 9) return INVALID_STATUS_CODE;
+            value = value * 10 + digit;
+        }
+        return getStatusCode(value);
+    }
+
+    /**
+     * 按整数状态码查找
+     *
+     * @param code the code
+     * @return the status code
+     */
+    public static PowerBoxStatusCode getStatusCode(int code) {
+        PowerBoxStatusCode statusCode = code >= 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+        return statusCode == null ? INVALID_STATUS_CODE : statusCode;
     }
 
     /**
@@ -132,4 +160,13 @@ public enum PowerBoxStatusCode {
     public String getCode() {
         return code;
     }
+
+    /**
+     * Gets int code.
+     *
+     * @return the int code
+     */
+    public int getIntCode() {
+        return intCode;
+    }
 }
@@ -0,0 +1,135 @@
+/*******************************************************************************
+ * Copyright (c) 2024-2025 R3944Realms. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.r3944realms.dg_lab_api.websocket.message.data.type;
+
+/**
+ * 数据与指令校验结果码<br/>
+ * 每个结果对应一个 {@link PowerBoxStatusCode}，说明文字为常量，仅在调用 {@link #getReason()} 时使用。
+ */
+public enum ValidationCode {
+    /**
+     * 有效
+     */
+    VALID(PowerBoxStatusCode.SUCCESSFUL, null),
+    /**
+     * 数据字段缺失
+     */
+    INVALID_DATA(PowerBoxStatusCode.INVALID_REQUEST, "Invalid PowerBox Data"),
+    /**
+     * 未知的数据类型
+     */
+    UNKNOWN_DATA_TYPE(PowerBoxStatusCode.INVALID_REQUEST, "Unknown PowerBox Data type"),
+    /**
+     * clientId、targetId 或 message 为空
+     */
+    EMPTY_FIELD(PowerBoxStatusCode.INVALID_REQUEST, "clientId, targetId or message is empty"),
+    /**
+     * 心跳消息不是有效的状态码
+     */
+    INVALID_STATUS_CODE(PowerBoxStatusCode.INVALID_REQUEST, "Message is not a valid status code"),
+    /**
+     * 指令为空
+     */
+    EMPTY_COMMAND(PowerBoxStatusCode.INVALID_REQUEST, "Command is empty"),
+    /**
+     * 未知指令
+     */
+    UNKNOWN_COMMAND(PowerBoxStatusCode.INVALID_REQUEST, "Invalid command"),
+    /**
+     * 参数数量不正确
+     */
+    INVALID_ARGUMENT_COUNT(PowerBoxStatusCode.INVALID_REQUEST, "Invalid number of arguments"),
+    /**
+     * 参数不是非负整数
+     */
+    INVALID_NUMBER(PowerBoxStatusCode.INVALID_REQUEST, "Arguments must be non-negative integers"),
+    /**
+     * 强度指令通道不正确
+     */
+    INVALID_STRENGTH_CHANNEL(PowerBoxStatusCode.NO_CHOOSE_CHANNEL, "Channel must be 1 or 2"),
+    /**
+     * 强度改变策略超出范围
+     */
+    INVALID_STRENGTH_POLICY(PowerBoxStatusCode.INVALID_REQUEST, "Strength change policy must in the range of [0,2]"),
+    /**
+     * 强度数值超出范围
+     */
+    STRENGTH_VALUE_OUT_OF_RANGE(PowerBoxStatusCode.INVALID_REQUEST, "Value must be between 0 and 200"),
+    /**
+     * 波形指令通道不正确或缺失
+     */
+    INVALID_PULSE_CHANNEL(PowerBoxStatusCode.NO_CHOOSE_CHANNEL, "Channel is incorrect or lacked."),
+    /**
+     * 缺少波形列表
+     */
+    WAVEFORM_LIST_MISSING(PowerBoxStatusCode.INVALID_REQUEST, "The list of Waveform data is lacked."),
+    /**
+     * 波形列表过长（超过100段）
+     */
+    WAVEFORM_LIST_TOO_LONG(PowerBoxStatusCode.MESSAGE_TOO_LONG, "The list of Waveform data is too long."),
+    /**
+     * 波形数据长度不是16
+     */
+    INVALID_WAVEFORM_LENGTH(PowerBoxStatusCode.INVALID_REQUEST, "Find list has a the invalid length of waveform data."),
+    /**
+     * 波形数据不是16进制
+     */
+    INVALID_WAVEFORM_SYNTAX(PowerBoxStatusCode.INVALID_REQUEST, "Find list has a incorrect syntax of waveform data."),
+    /**
+     * 清空指令通道不正确
+     */
+    INVALID_CLEAR_CHANNEL(PowerBoxStatusCode.NO_CHOOSE_CHANNEL, "The argument must be 1 or 2"),
+    /**
+     * 反馈值超出范围
+     */
+    FEEDBACK_OUT_OF_RANGE(PowerBoxStatusCode.INVALID_REQUEST, "args must be between 0 and 10");
+
+    private final PowerBoxStatusCode statusCode;
+    private final String reason;
+
+    ValidationCode(PowerBoxStatusCode statusCode, String reason) {
+        this.statusCode = statusCode;
+        this.reason = reason;
+    }
+
+    /**
+     * 是否有效
+     *
+     * @return the boolean
+     */
+    public boolean isValid() {
+        return this == VALID;
+    }
+
+    /**
+     * 对应的状态码
+     *
+     * @return the status code
+     */
+    public PowerBoxStatusCode getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * 无效原因
+     *
+     * @return 原因，有效时为 null
+     */
+    public String getReason() {
+        return reason;
+    }
+}
@@ -31,6 +31,10 @@ public final class PlaceholderRole extends Role {
         super(name, RoleType.PLACEHOLDER);
     }
 
+    PlaceholderRole(String name, boolean interned) {
+        super(name, RoleType.PLACEHOLDER, interned);
+    }
+
     /**
      * Of placeholder role.
      *
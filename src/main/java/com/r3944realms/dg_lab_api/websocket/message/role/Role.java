@@ -28,11 +28,15 @@ public sealed abstract class Role implements Serializable
     /**
      * The Name.
      */
-    public String name;
+    private String name;
     /**
      * The Type.
      */
     public final RoleType type;
+    /**
+     * 是否由 {@link RoleInterner} 创建（共享实例，不可改名）
+     */
+    final transient boolean interned;
 
     /**
      * Instantiates a new Role.
@@ -41,17 +45,65 @@ public sealed abstract class Role implements Serializable
      * @param type the type
      */
     Role(String name, final RoleType type) {
+        this(name, type, false);
+    }
+
+    /**
+     * Instantiates a new Role.
+     *
+     * @param name     the name
+     * @param type     the type
+     * @param interned 是否为共享实例
+     */
+    Role(String name, final RoleType type, boolean interned) {
         this.name = name;
         this.type = type;
+        this.interned = interned;
+    }
+
+    /**
+     * 按类型创建角色
+     *
+     * @param type the type
+     * @param name the name
+     * @return the role
+     */
+    public static Role create(RoleType type, String name) {
+        return switch (type) {
+            case T_CLIENT -> new WebSocketClientRole(name);
+            case T_SERVER -> new WebSocketServerRole(name);
+            case APPLICATION -> new WebSocketApplicationRole(name);
+            case PLACEHOLDER -> new PlaceholderRole(name);
+        };
+    }
+
+    /**
+     * Gets name.
+     *
+     * @return the name
+     */
+    public String getName() {
+        return name;
     }
 
     /**
      * 更新角色名字，主要在每次心跳时更新
      *
      * @param name 角色
+     * @throws UnsupportedOperationException 共享实例（见 {@link #isInterned()}）不可改名
      */
     public void UpdateName(String name) {
+        if (interned) throw new UnsupportedOperationException("Interned role cannot be renamed");
         this.name = name;
     }
+
+    /**
+     * 是否为 {@link RoleInterner} 提供的共享实例
+     *
+     * @return the boolean
+     */
+    public boolean isInterned() {
+        return interned;
+    }
 }
 
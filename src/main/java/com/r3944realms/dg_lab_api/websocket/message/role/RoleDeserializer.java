@@ -31,14 +31,6 @@ public class RoleDeserializer implements JsonDeserializer<Role> {
         JsonObject jsonObject = json.getAsJsonObject();
         String name = jsonObject.get("name").getAsString();
         RoleType type = RoleType.getTypeFromString(jsonObject.get("type").getAsString());
-        if (type != null) {
-            return switch (type){
-                case T_CLIENT -> new WebSocketClientRole(name);
-                case T_SERVER -> new WebSocketServerRole(name);
-                case APPLICATION -> new WebSocketApplicationRole(name);
-                case PLACEHOLDER -> new PlaceholderRole(name);
-            };
-        }
-        return null;
+        return type != null ? Role.create(type, name) : null;
     }
 }
@@ -0,0 +1,80 @@
+/*******************************************************************************
+ * Copyright (c) 2024-2025 R3944Realms. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.r3944realms.dg_lab_api.websocket.message.role;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.r3944realms.dg_lab_api.websocket.message.role.type.RoleType;
+
+import java.util.EnumMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * 角色共享池<br/>
+ * 以 (RoleType, name) 为键返回共享的不可改名角色。
+ * 每种角色类型对应一个弱值缓存：只要角色仍被引用，同名查找总返回同一实例；不再被引用的角色可被回收，
+ * 因此占用随活跃会话数增减。命中时不创建角色，名字为 null 的角色不入池，每次新建。
+ */
+public final class RoleInterner {
+    private static final EnumMap<RoleType, Cache<String, Role>> CACHES = new EnumMap<>(RoleType.class);
+
+    static {
+        for (RoleType type : RoleType.values()) {
+            CACHES.put(type, CacheBuilder.newBuilder().weakValues().build());
+        }
+    }
+
+    private RoleInterner() {}
+
+    /**
+     * 获取共享角色
+     *
+     * @param type 角色类型
+     * @param name 角色名
+     * @return 共享角色，{@link Role#isInterned()} 为 true
+     */
+    public static Role intern(RoleType type, String name) {
+        if (name == null) return create(type, null);
+        Cache<String, Role> cache = CACHES.get(type);
+        Role role = cache.getIfPresent(name);
+        if (role != null) return role;
+        try {
+            return cache.get(name, () -> create(type, name));
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * 若已是共享角色则直接返回，否则按其类型与名字获取共享角色
+     *
+     * @param role the role
+     * @return 共享角色
+     */
+    public static Role intern(Role role) {
+        return role.interned ? role : intern(role.type, role.getName());
+    }
+
+    private static Role create(RoleType type, String name) {
+        return switch (type) {
+            case T_CLIENT -> new WebSocketClientRole(name, true);
+            case T_SERVER -> new WebSocketServerRole(name, true);
+            case APPLICATION -> new WebSocketApplicationRole(name, true);
+            case PLACEHOLDER -> new PlaceholderRole(name, true);
+        };
+    }
+}
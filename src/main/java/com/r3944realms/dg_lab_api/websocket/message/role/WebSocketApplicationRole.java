@@ -31,6 +31,10 @@ public final class WebSocketApplicationRole extends Role{
         super(name, RoleType.APPLICATION);
     }
 
+    WebSocketApplicationRole(String name, boolean interned) {
+        super(name, RoleType.APPLICATION, interned);
+    }
+
     /**
      * Of web socket application role.
      *
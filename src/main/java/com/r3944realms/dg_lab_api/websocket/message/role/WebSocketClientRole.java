@@ -31,6 +31,10 @@ public final class WebSocketClientRole extends Role {
         super(name, RoleType.T_CLIENT);
     }
 
+    WebSocketClientRole(String name, boolean interned) {
+        super(name, RoleType.T_CLIENT, interned);
+    }
+
     /**
      * Of web socket client role.
      *
@@ -31,6 +31,10 @@ public final class WebSocketServerRole extends Role {
         super(name, RoleType.T_SERVER);
     }
 
+    WebSocketServerRole(String name, boolean interned) {
+        super(name, RoleType.T_SERVER, interned);
+    }
+
     /**
      * Of web socket server role.
      *